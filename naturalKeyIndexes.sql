@@ -0,0 +1,46 @@
+-- --------------------------------------------------------
+-- Natural-key unique indexes for the bookmatch database
+--
+-- Run once against a database created from bookMatchSqlDumpWithDataLatest.sql.
+-- The entities do not declare these indexes, so hbm2ddl never creates them.
+-- On startup ProductDao finds them and writes with its upsert path from then on;
+-- INSERT ... ON DUPLICATE KEY UPDATE relies on them to tell an existing row from a new one.
+-- --------------------------------------------------------
+
+USE `bookmatch`;
+
+-- MyISAM limits index keys to 1000 bytes and has no transactions,
+-- the title/author key needs InnoDB with the dynamic row format.
+ALTER TABLE `books` ENGINE=InnoDB ROW_FORMAT=DYNAMIC;
+ALTER TABLE `price` ENGINE=InnoDB ROW_FORMAT=DYNAMIC;
+ALTER TABLE `compare_prices` ENGINE=InnoDB ROW_FORMAT=DYNAMIC;
+
+-- Point prices at the oldest copy of each duplicated book
+UPDATE `price` p
+    JOIN `books` b ON b.`id` = p.`books_id`
+    JOIN (SELECT MIN(`id`) AS `id`, `title`, `author` FROM `books` GROUP BY `title`, `author`) keep
+        ON keep.`title` = b.`title` AND keep.`author` = b.`author`
+SET p.`books_id` = keep.`id`
+WHERE keep.`id` <> b.`id`;
+
+UPDATE `compare_prices` cp
+    JOIN `books` b ON b.`id` = cp.`books_id`
+    JOIN (SELECT MIN(`id`) AS `id`, `title`, `author` FROM `books` GROUP BY `title`, `author`) keep
+        ON keep.`title` = b.`title` AND keep.`author` = b.`author`
+SET cp.`books_id` = keep.`id`
+WHERE keep.`id` <> b.`id`;
+
+-- Remove duplicates, keeping the oldest book and the most recent price for each key
+DELETE b FROM `books` b
+    JOIN `books` keep ON keep.`title` = b.`title` AND keep.`author` = b.`author` AND keep.`id` < b.`id`;
+
+DELETE p FROM `price` p
+    JOIN `price` newer ON newer.`urls` = p.`urls` AND newer.`id` > p.`id`;
+
+DELETE cp FROM `compare_prices` cp
+    JOIN `compare_prices` newer ON newer.`urls` = cp.`urls` AND newer.`retailer` = cp.`retailer` AND newer.`id` > cp.`id`;
+
+-- Unique indexes on the natural keys used by ProductDao
+ALTER TABLE `books` ADD UNIQUE KEY `uk_books_title_author` (`title`, `author`);
+ALTER TABLE `price` ADD UNIQUE KEY `uk_price_urls` (`urls`);
+ALTER TABLE `compare_prices` ADD UNIQUE KEY `uk_compare_prices_urls_retailer` (`urls`, `retailer`);
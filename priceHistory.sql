@@ -0,0 +1,61 @@
+-- --------------------------------------------------------
+-- Append-only price history for the bookmatch database
+--
+-- Run once against a database created from bookMatchSqlDumpWithDataLatest.sql,
+-- before the first scrape that writes price observations; otherwise Hibernate
+-- creates price_observation itself, without the partitions.
+-- ProductDao appends a row only when a retailer's price for a book changes,
+-- so years of daily scrapes of 100k+ offers stay in the tens of millions of rows.
+-- --------------------------------------------------------
+
+USE `bookmatch`;
+
+-- About 40 bytes per row: no URLs or image URLs, a fixed size price and currency.
+-- MySQL requires the partitioning column in every unique key, so the primary key
+-- is (id, observed_at); id alone is still unique as it is AUTO_INCREMENT.
+CREATE TABLE IF NOT EXISTS `price_observation` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `books_id` INT NOT NULL,
+    `retailer` VARCHAR(32) NOT NULL,
+    `price` DECIMAL(10,2) NOT NULL,
+    `currency` CHAR(3) NOT NULL,
+    `observed_at` DATETIME NOT NULL,
+    PRIMARY KEY (`id`, `observed_at`),
+    KEY `idx_price_observation_book_retailer_time` (`books_id`, `retailer`, `observed_at`)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED
+PARTITION BY RANGE COLUMNS (`observed_at`) (
+    PARTITION `p2024` VALUES LESS THAN ('2025-01-01'),
+    PARTITION `p2025` VALUES LESS THAN ('2026-01-01'),
+    PARTITION `p2026` VALUES LESS THAN ('2027-01-01'),
+    PARTITION `p2027` VALUES LESS THAN ('2028-01-01'),
+    PARTITION `pfuture` VALUES LESS THAN (MAXVALUE)
+);
+
+-- Inserts only ever go to the newest partition, so writes stay as fast as on a small table,
+-- and history queries for a time range only read the partitions that overlap it.
+-- Before a new year starts, split the catch-all partition, e.g.:
+--
+-- ALTER TABLE `price_observation` REORGANIZE PARTITION `pfuture` INTO (
+--     PARTITION `p2028` VALUES LESS THAN ('2029-01-01'),
+--     PARTITION `pfuture` VALUES LESS THAN (MAXVALUE)
+-- );
+--
+-- Years that are no longer needed are removed without a row by row delete:
+--
+-- ALTER TABLE `price_observation` DROP PARTITION `p2024`;
+
+-- Start every history with the prices currently stored
+INSERT INTO `price_observation` (`books_id`, `retailer`, `price`, `currency`, `observed_at`)
+SELECT cp.`books_id`, cp.`retailer`, cp.`price`,
+       CASE cp.`retailer`
+           WHEN 'HPB.com' THEN 'USD'
+           WHEN 'OwlsNestBooks.com' THEN 'USD'
+           WHEN 'QBD.com' THEN 'AUD'
+           WHEN 'DubrayBooks.ie' THEN 'EUR'
+           ELSE 'GBP'
+       END,
+       UTC_TIMESTAMP()
+FROM `compare_prices` cp
+WHERE cp.`price` IS NOT NULL AND cp.`books_id` IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM `price_observation` o
+                  WHERE o.`books_id` = cp.`books_id` AND o.`retailer` = cp.`retailer`);
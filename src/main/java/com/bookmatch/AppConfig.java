@@ -5,6 +5,8 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import com.bookmatch.webscrapers.*;
 
+import java.nio.file.Paths;
+
 /**
  * AppConfig class is a configuration class responsible for defining Spring beans for the application.
  */
@@ -13,18 +15,59 @@ import com.bookmatch.webscrapers.*;
 public class AppConfig {
 
     private final FirefoxWebDriverProvider webDriverProvider;
+    private final HttpStaticPageProvider staticPageProvider;
 
     /**
-     * Constructs an {@code AppConfig} instance with the specified {@code FirefoxWebDriverProvider}.
+     * Constructs an {@code AppConfig} instance with the specified page providers.
      *
-     * @param webDriverProvider The provider for obtaining WebDriver instances.
+     * @param webDriverProvider  The provider for obtaining WebDriver instances.
+     * @param staticPageProvider The provider for fetching static HTML without a browser.
      */
-    public AppConfig(FirefoxWebDriverProvider webDriverProvider) {
+    public AppConfig(FirefoxWebDriverProvider webDriverProvider, HttpStaticPageProvider staticPageProvider) {
         this.webDriverProvider = webDriverProvider;
+        this.staticPageProvider = staticPageProvider;
+    }
+
+    /**
+     * Creates the shared WebDriver pool so that all scrapers reuse warm browser sessions
+     * instead of launching a new Firefox instance for every page. The pool is the browser budget of the
+     * whole run: at most -Dbookmatch.browserSessions sessions (6 by default), each restarted once it uses more
+     * than -Dbookmatch.browserSessionMemoryMb (1024 by default), and no new browser while all of them together
+     * use more than -Dbookmatch.browserTotalMemoryMb (4096 by default). Memory is read from /proc where available.
+     *
+     * @return The pooled WebDriver provider bean.
+     */
+    @Bean
+    public PooledWebDriverProvider pooledWebDriverProvider() {
+        webDriverProvider.setBrowserProfile(browserProfile());
+        PooledWebDriverProvider tmpPooledWebDriverProvider = new PooledWebDriverProvider(webDriverProvider,
+                Integer.getInteger("bookmatch.browserSessions", PooledWebDriverProvider.DEFAULT_MAX_SIZE),
+                PooledWebDriverProvider.DEFAULT_MAX_PAGES_PER_SESSION);
+        tmpPooledWebDriverProvider.setMemoryLimits(BrowserMemoryProbe.procfs(),
+                Long.getLong("bookmatch.browserSessionMemoryMb", 1024) * 1024 * 1024,
+                Long.getLong("bookmatch.browserTotalMemoryMb", 4096) * 1024 * 1024);
+        return tmpPooledWebDriverProvider;
+    }
+
+    /**
+     * Creates the resource blocking profile of the browser sessions. Images, web fonts and trackers are blocked;
+     * images are loaded again with -Dbookmatch.loadImages=true and stylesheets are blocked too with
+     * -Dbookmatch.blockStylesheets=true.
+     *
+     * @return The browser profile bean.
+     */
+    @Bean
+    public BrowserProfile browserProfile() {
+        BrowserProfile tmpBrowserProfile = new BrowserProfile();
+        tmpBrowserProfile.setBlockImages(!Boolean.getBoolean("bookmatch.loadImages"));
+        tmpBrowserProfile.setBlockStylesheets(Boolean.getBoolean("bookmatch.blockStylesheets"));
+        return tmpBrowserProfile;
     }
 
     /**
      * Creates and initializes a ProductDao bean.
+     * The native upsert path is used once naturalKeyIndexes.sql has been applied; -Dbookmatch.upsert=true or false overrides the check.
+     * Spring calls its close method on shutdown, which releases the connection pool.
      *
      * @return The initialized ProductDao bean.
      */
@@ -32,83 +75,179 @@ public class AppConfig {
     public ProductDao getProductDao() {
         ProductDao tmpProductDao = new ProductDao();
         tmpProductDao.init();
+        if (System.getProperty("bookmatch.upsert") != null) {
+            tmpProductDao.setUpsertEnabled(Boolean.getBoolean("bookmatch.upsert"));
+        }
         return tmpProductDao;
     }
 
     /**
-     * Creates a WaterStonesScraper bean and sets its ProductDao dependency.
+     * Creates the write-behind queue that saves scraped books on background writer threads,
+     * so the scrapers never wait on the database while holding a browser session.
+     * Spring closes it on shutdown, which flushes any books still waiting to be written.
+     *
+     * @return The write-behind queue bean.
+     */
+    @Bean
+    public WriteBehindQueue writeBehindQueue() {
+        return new WriteBehindQueue(getProductDao());
+    }
+
+    /**
+     * Creates the checkpoint store that records each retailer's progress through the current run.
+     * The file defaults to scrape-checkpoint.tsv and can be moved with -Dbookmatch.checkpoint=path.
+     * {@link Main} clears it before a fresh run and keeps it when started with --resume.
+     *
+     * @return The checkpoint store bean.
+     */
+    @Bean
+    public CheckpointStore checkpointStore() {
+        CheckpointStore tmpCheckpointStore = new CheckpointStore(Paths.get(System.getProperty("bookmatch.checkpoint", "scrape-checkpoint.tsv")));
+        tmpCheckpointStore.load();
+        return tmpCheckpointStore;
+    }
+
+    /**
+     * Creates the per-host rate limiter shared by the browser page loads and the static fetches.
+     * Hosts get -Dbookmatch.requestsPerSecond requests per second (2 by default) until they push back,
+     * and the Crawl-delay of each host's robots.txt is honoured.
+     *
+     * @return The rate limiter bean.
+     */
+    @Bean
+    public HostRateLimiter hostRateLimiter() {
+        HostRateLimiter tmpHostRateLimiter = new HostRateLimiter(
+                Double.parseDouble(System.getProperty("bookmatch.requestsPerSecond", String.valueOf(HostRateLimiter.DEFAULT_REQUESTS_PER_SECOND))),
+                HostRateLimiter.DEFAULT_BURST);
+        tmpHostRateLimiter.setRobotsProvider(staticPageProvider);
+        staticPageProvider.setRateLimiter(tmpHostRateLimiter);
+        return tmpHostRateLimiter;
+    }
+
+    /**
+     * Creates the crawl state store that remembers every book page fetch between runs.
+     * The state file defaults to crawl-state.tsv and can be moved with -Dbookmatch.crawlState=path.
+     * Spring closes it on shutdown, which saves the state.
+     *
+     * @return The crawl state store bean.
+     */
+    @Bean
+    public CrawlStateStore crawlStateStore() {
+        CrawlStateStore tmpCrawlStateStore = new CrawlStateStore(Paths.get(System.getProperty("bookmatch.crawlState", "crawl-state.tsv")));
+        tmpCrawlStateStore.load();
+        return tmpCrawlStateStore;
+    }
+
+    /**
+     * Creates the scraping engine shared by all retailer scrapers. It owns the listing and book page fetching,
+     * the static HTML fast path and the hand-off to the write-behind queue; the scrapers only describe their retailer.
+     * Book pages are fetched on virtual threads with -Dbookmatch.virtualThreads=true, and only changed
+     * book pages are revisited with -Dbookmatch.incremental=true. Book page fields are read in one script call
+     * unless -Dbookmatch.perFieldExtraction=true. With -Dbookmatch.priceRefresh=true known books
+     * only have their price updated from the listing card. The next -Dbookmatch.listingLookahead listing pages
+     * (1 by default) are fetched while the book pages of the current one are scraped.
+     *
+     * @return The scraping engine bean.
+     */
+    @Bean
+    public ScrapingEngine scrapingEngine() {
+        ScrapingEngine tmpScrapingEngine = new ScrapingEngine(pooledWebDriverProvider());
+        tmpScrapingEngine.setProductDao(getProductDao());
+        tmpScrapingEngine.setWriteBehindQueue(writeBehindQueue());
+        tmpScrapingEngine.setStaticPageProvider(staticPageProvider);
+        tmpScrapingEngine.setVirtualThreads(Boolean.getBoolean("bookmatch.virtualThreads"));
+        tmpScrapingEngine.setCrawlStateStore(crawlStateStore());
+        tmpScrapingEngine.setIncremental(Boolean.getBoolean("bookmatch.incremental"));
+        tmpScrapingEngine.setPriceRefresh(Boolean.getBoolean("bookmatch.priceRefresh"));
+        tmpScrapingEngine.setRateLimiter(hostRateLimiter());
+        tmpScrapingEngine.setCheckpointStore(checkpointStore());
+        tmpScrapingEngine.setScriptedExtraction(!Boolean.getBoolean("bookmatch.perFieldExtraction"));
+        tmpScrapingEngine.setListingLookahead(Integer.getInteger("bookmatch.listingLookahead", 1));
+        return tmpScrapingEngine;
+    }
+
+    /**
+     * Creates a WaterStonesScraper bean and attaches it to the scraping engine.
      *
      * @return The configured WaterStonesScraper bean.
      */
     @Bean
     public WaterStonesScraper waterStonesScraper() {
-        WaterStonesScraper tmpWaterStonesScraper = new WaterStonesScraper(webDriverProvider);
-        tmpWaterStonesScraper.setProductDao(getProductDao());
+        WaterStonesScraper tmpWaterStonesScraper = new WaterStonesScraper(pooledWebDriverProvider());
+        tmpWaterStonesScraper.setScrapingEngine(scrapingEngine());
+        tmpWaterStonesScraper.setDetailParallelism(2);
         return tmpWaterStonesScraper;
     }
 
     /**
-     * Creates a WorderyScraper bean and sets its ProductDao dependency.
+     * Creates a WorderyScraper bean and attaches it to the scraping engine.
      *
      * @return The configured WorderyScraper bean.
      */
     @Bean
     public WorderyScraper worderyScraper() {
-        WorderyScraper tmpWorderyScraper = new WorderyScraper(webDriverProvider);
-        tmpWorderyScraper.setProductDao(getProductDao());
+        WorderyScraper tmpWorderyScraper = new WorderyScraper(pooledWebDriverProvider());
+        tmpWorderyScraper.setScrapingEngine(scrapingEngine());
+        tmpWorderyScraper.setDetailParallelism(2);
         return tmpWorderyScraper;
     }
 
     /**
-     * Creates an HpbScraper bean and sets its ProductDao dependency.
+     * Creates an HpbScraper bean and attaches it to the scraping engine.
+     * HPB lists 80 books per page, so it fetches more book pages at once than the other retailers.
      *
      * @return The configured HpbScraper bean.
      */
     @Bean
     public HpbScraper hpbScraper() {
-        HpbScraper tmpHpbScraper = new HpbScraper(webDriverProvider);
-        tmpHpbScraper.setProductDao(getProductDao());
+        HpbScraper tmpHpbScraper = new HpbScraper(pooledWebDriverProvider());
+        tmpHpbScraper.setScrapingEngine(scrapingEngine());
+        tmpHpbScraper.setDetailParallelism(4);
         return tmpHpbScraper;
     }
 
     /**
-     * Creates a QbdScraper bean and sets its ProductDao dependency.
+     * Creates a QbdScraper bean and attaches it to the scraping engine.
      *
      * @return The configured QbdScraper bean.
      */
     @Bean
     public QbdScraper qbdScraper() {
-        QbdScraper tmpQbdScraper = new QbdScraper(webDriverProvider);
-        tmpQbdScraper.setProductDao(getProductDao());
+        QbdScraper tmpQbdScraper = new QbdScraper(pooledWebDriverProvider());
+        tmpQbdScraper.setScrapingEngine(scrapingEngine());
+        tmpQbdScraper.setDetailParallelism(2);
         return tmpQbdScraper;
     }
 
     /**
-     * Creates a DubrayScraper bean and sets its ProductDao dependency.
+     * Creates a DubrayScraper bean and attaches it to the scraping engine.
      *
      * @return The configured DubrayScraper bean.
      */
     @Bean
     public DubrayScraper dubrayScraper() {
-        DubrayScraper tmpDubrayScraper = new DubrayScraper(webDriverProvider);
-        tmpDubrayScraper.setProductDao(getProductDao());
+        DubrayScraper tmpDubrayScraper = new DubrayScraper(pooledWebDriverProvider());
+        tmpDubrayScraper.setScrapingEngine(scrapingEngine());
+        tmpDubrayScraper.setDetailParallelism(2);
         return tmpDubrayScraper;
     }
 
     /**
-     * Creates an OwlsNestScraper bean and sets its ProductDao dependency.
+     * Creates an OwlsNestScraper bean and attaches it to the scraping engine.
      *
      * @return The configured OwlsNestScraper bean.
      */
     @Bean
     public OwlsNestScraper owlsNestScraper() {
-        OwlsNestScraper tmpOwlsNestScraper = new OwlsNestScraper(webDriverProvider);
-        tmpOwlsNestScraper.setProductDao(getProductDao());
+        OwlsNestScraper tmpOwlsNestScraper = new OwlsNestScraper(pooledWebDriverProvider());
+        tmpOwlsNestScraper.setScrapingEngine(scrapingEngine());
+        tmpOwlsNestScraper.setDetailParallelism(2);
         return tmpOwlsNestScraper;
     }
 
     /**
      * Creates a Scraper bean and sets its individual scraper dependencies.
+     * Retailers run on virtual threads with -Dbookmatch.virtualThreads=true.
      *
      * @return The configured Scraper bean.
      */
@@ -121,6 +260,7 @@ public class AppConfig {
         tmpScraper.setWaterStonesScraper(waterStonesScraper());
         tmpScraper.setWorderyScraper(worderyScraper());
         tmpScraper.setOwlsNestScraper(owlsNestScraper());
+        tmpScraper.setVirtualThreads(Boolean.getBoolean("bookmatch.virtualThreads"));
         return tmpScraper;
     }
 }
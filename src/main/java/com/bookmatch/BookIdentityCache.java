@@ -0,0 +1,241 @@
+package com.bookmatch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A bounded, thread safe cache of what has already been persisted, used by {@link ProductDao}
+ * to skip database work for books and prices it has seen before.
+ * It maps a normalized (title, author) key to the book ID and a fingerprint of the book details,
+ * and each book page URL to a fingerprint of the price row last written for it,
+ * so only rows whose content changed need to be written. Both maps evict their least recently used entries once full.
+ * The cache only reflects writes made through this process, so rows deleted or changed directly
+ * in the database are not noticed until the cache is cleared or the application restarts.
+ */
+public class BookIdentityCache {
+
+    /** Default maximum number of entries kept in each map. */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final Map<String, BookEntry> books;
+    private final Map<String, Long> prices;
+
+    /**
+     * Constructs a cache holding up to {@link #DEFAULT_MAX_ENTRIES} books and prices.
+     */
+    public BookIdentityCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructs a cache with the given capacity.
+     *
+     * @param maxEntries Maximum number of entries kept in each map.
+     */
+    public BookIdentityCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.books = Collections.synchronizedMap(new LruMap<>(maxEntries));
+        this.prices = Collections.synchronizedMap(new LruMap<>(maxEntries));
+    }
+
+    /**
+     * Builds the normalized key identifying a book: trimmed, lower case and with whitespace collapsed,
+     * matching the case insensitive collation of the books table.
+     *
+     * @param title  The title of the book.
+     * @param author The author of the book.
+     * @return The normalized key.
+     */
+    public static String key(String title, String author) {
+        return normalize(title) + "|" + normalize(author);
+    }
+
+    /**
+     * Computes a fingerprint of the book details stored in the books table.
+     *
+     * @param title           The title of the book.
+     * @param author          The author of the book.
+     * @param description     The description of the book.
+     * @param publicationDate The publication date of the book.
+     * @return The fingerprint of the book row.
+     */
+    public static long bookFingerprint(String title, String author, String description, LocalDate publicationDate) {
+        return fingerprint(key(title, author), description, publicationDate);
+    }
+
+    /**
+     * Computes a fingerprint of the price details stored for a book page URL.
+     *
+     * @param title    The title of the book the price belongs to.
+     * @param author   The author of the book the price belongs to.
+     * @param price    The price.
+     * @param imageUrl The cover image URL.
+     * @param retailer The retailer name.
+     * @return The fingerprint of the price row.
+     */
+    public static long priceFingerprint(String title, String author, Double price, String imageUrl, String retailer) {
+        return fingerprint(key(title, author), price, imageUrl, retailer);
+    }
+
+    /**
+     * Returns the ID of a book that has already been persisted.
+     *
+     * @param title  The title of the book.
+     * @param author The author of the book.
+     * @return The book ID, or {@code null} if the book is not cached.
+     */
+    public Integer getBookId(String title, String author) {
+        BookEntry entry = books.get(key(title, author));
+        return entry != null ? entry.id : null;
+    }
+
+    /**
+     * Records a persisted book.
+     *
+     * @param title       The title of the book.
+     * @param author      The author of the book.
+     * @param id          The book ID.
+     * @param fingerprint The fingerprint of the persisted book details.
+     */
+    public void putBook(String title, String author, Integer id, long fingerprint) {
+        if (id != null) {
+            books.put(key(title, author), new BookEntry(id, fingerprint));
+        }
+    }
+
+    /**
+     * Checks whether a book has already been persisted with the same details.
+     *
+     * @param title       The title of the book.
+     * @param author      The author of the book.
+     * @param fingerprint The fingerprint of the scraped book details.
+     * @return True if the database already holds these details for the book.
+     */
+    public boolean isBookUnchanged(String title, String author, long fingerprint) {
+        BookEntry entry = books.get(key(title, author));
+        return entry != null && entry.fingerprint == fingerprint;
+    }
+
+    /**
+     * Records the fingerprint of the price row last persisted for a book page URL.
+     *
+     * @param url         The book page URL.
+     * @param fingerprint The fingerprint of the persisted price details.
+     */
+    public void putPrice(String url, long fingerprint) {
+        if (url != null) {
+            prices.put(url, fingerprint);
+        }
+    }
+
+    /**
+     * Forgets the price fingerprint of a URL, e.g. after its price was changed without the full details at hand.
+     *
+     * @param url The book page URL.
+     */
+    public void removePrice(String url) {
+        if (url != null) {
+            prices.remove(url);
+        }
+    }
+
+    /**
+     * Checks whether a price row has already been persisted with the same details for a URL.
+     *
+     * @param url         The book page URL.
+     * @param fingerprint The fingerprint of the scraped price details.
+     * @return True if the database already holds these details for the URL.
+     */
+    public boolean isPriceUnchanged(String url, long fingerprint) {
+        if (url == null) {
+            return false;
+        }
+        Long cached = prices.get(url);
+        return cached != null && cached == fingerprint;
+    }
+
+    /**
+     * Returns the number of cached books.
+     *
+     * @return The number of book entries.
+     */
+    public int getBookCount() {
+        return books.size();
+    }
+
+    /**
+     * Returns the number of cached prices.
+     *
+     * @return The number of price entries.
+     */
+    public int getPriceCount() {
+        return prices.size();
+    }
+
+    /**
+     * Removes every cached entry.
+     */
+    public void clear() {
+        books.clear();
+        prices.clear();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Hashes the given values into a 64-bit fingerprint; {@code null} and empty values are kept distinct.
+     */
+    private static long fingerprint(Object... values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object value : values) {
+                digest.update(value == null ? new byte[]{0} : ("\u0001" + value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0x1f); // Field separator
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * The ID and details fingerprint of a persisted book.
+     */
+    private static class BookEntry {
+        private final Integer id;
+        private final long fingerprint;
+
+        BookEntry(Integer id, long fingerprint) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * A LinkedHashMap in access order that drops its least recently used entry when full.
+     */
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
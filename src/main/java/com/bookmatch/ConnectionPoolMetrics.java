@@ -0,0 +1,105 @@
+package com.bookmatch;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects connection pool metrics for the {@link ProductDao} DataSource:
+ * how long threads wait to acquire a connection, how long they hold it, and how often acquisition times out.
+ * A growing acquire time means the pool has become a serialization point and needs more connections.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private final LongSummaryStatistics acquireMicros = new LongSummaryStatistics();
+    private final LongSummaryStatistics usageMillis = new LongSummaryStatistics();
+    private final AtomicLong timeouts = new AtomicLong();
+    private volatile PoolStats poolStats;
+
+    /**
+     * Creates the tracker HikariCP reports to for the given pool.
+     *
+     * @param poolName  The name of the pool.
+     * @param poolStats Live counters of the pool.
+     * @return The metrics tracker.
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                synchronized (acquireMicros) {
+                    acquireMicros.accept(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos));
+                }
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                synchronized (usageMillis) {
+                    usageMillis.accept(elapsedBorrowedMillis);
+                }
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * Returns a snapshot of the connection acquire times in microseconds.
+     *
+     * @return The acquire time statistics.
+     */
+    public LongSummaryStatistics getAcquireMicros() {
+        synchronized (acquireMicros) {
+            LongSummaryStatistics copy = new LongSummaryStatistics();
+            copy.combine(acquireMicros);
+            return copy;
+        }
+    }
+
+    /**
+     * Returns a snapshot of how long connections were held, in milliseconds.
+     *
+     * @return The connection usage statistics.
+     */
+    public LongSummaryStatistics getUsageMillis() {
+        synchronized (usageMillis) {
+            LongSummaryStatistics copy = new LongSummaryStatistics();
+            copy.combine(usageMillis);
+            return copy;
+        }
+    }
+
+    /**
+     * Returns the number of times a thread gave up waiting for a connection.
+     *
+     * @return The number of acquire timeouts.
+     */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * Prints a summary of the pool metrics.
+     */
+    public void printStats() {
+        LongSummaryStatistics acquire = getAcquireMicros();
+        LongSummaryStatistics usage = getUsageMillis();
+        System.out.println("Connection pool: " + acquire.getCount() + " acquisitions, wait avg "
+                + Math.round(acquire.getAverage()) + "us max " + (acquire.getCount() > 0 ? acquire.getMax() : 0) + "us, held avg "
+                + Math.round(usage.getAverage()) + "ms, " + timeouts.get() + " timeouts");
+        PoolStats stats = poolStats;
+        if (stats != null) {
+            System.out.println("Connection pool: " + stats.getActiveConnections() + " active, " + stats.getIdleConnections()
+                    + " idle, " + stats.getPendingThreads() + " waiting of " + stats.getMaxConnections() + " max");
+        }
+    }
+}
@@ -1,36 +1,50 @@
 package com.bookmatch;
 
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import com.bookmatch.webscrapers.*;
 
+import java.util.Arrays;
+
 /**
  * The {@code Main} class serves as the entry point for the web scraping application.
  * It initializes the Spring application context, retrieves the Scraper bean,
- * and initiates the scraping process.
+ * and initiates the scraping process. Started with {@code --resume}, it continues the previous run
+ * from its checkpoints instead of starting every retailer from its first page.
  */
 public class Main {
 
     /**
      * The main method to start the web scraping process.
      *
-     * @param args The command line arguments (not used in this application).
+     * @param args The command line arguments: {@code --resume} to continue an interrupted run.
      * @throws InterruptedException If the execution is interrupted during the scraping process.
      */
     public static void main(String[] args) throws InterruptedException {
 
         // Create the Spring application context using the configuration class AppConfig
-        ApplicationContext context = new AnnotationConfigApplicationContext(
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
                 AppConfig.class
         );
 
+        // Close the context on JVM exit so pooled browser sessions are quit
+        context.registerShutdownHook();
+
         // Retrieve the Scraper bean from the application context
         Scraper scraper = (Scraper) context.getBean("scraper");
 
+        // Keep the checkpoints of the previous run only when resuming it
+        CheckpointStore checkpointStore = context.getBean(CheckpointStore.class);
+        if (Arrays.asList(args).contains("--resume")) {
+            System.out.println("Resuming the previous scrape run from its checkpoints");
+        } else {
+            checkpointStore.clear();
+        }
+
         try {
             // Initiate the scraping process
             System.out.println("Starting Webscraping");
-            scraper.scrape();
+            ScrapeRunSummary summary = scraper.scrape();
+            summary.printSummary();
         } catch (Exception ex) {
             System.out.println("Scrape function failed.");
             ex.printStackTrace();
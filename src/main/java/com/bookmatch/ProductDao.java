@@ -3,14 +3,34 @@ package com.bookmatch;
 import com.bookmatch.models.Books;
 import com.bookmatch.models.ComparePrices;
 import com.bookmatch.models.Price;
+import com.bookmatch.models.PriceObservation;
+import com.bookmatch.models.ScrapedItem;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.cfgxml.spi.LoadedConfig;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.query.Query;
 
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 
 /**
  * Data Access Object (DAO) for managing product-related operations using Hibernate.
@@ -20,6 +40,98 @@ public class ProductDao {
     /** The Hibernate session factory for managing database connections. */
     public SessionFactory sessionFactory;
 
+    /** Prefix of the hibernate.cfg.xml properties that are passed on to the connection pool. */
+    private static final String POOL_PROPERTY_PREFIX = "hibernate.hikari.";
+
+    /** The pooled DataSource behind the session factory, created by {@link #init()}. */
+    private HikariDataSource dataSource;
+
+    /** Wait time and usage metrics of the connection pool. */
+    private final ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics();
+
+    /** Number of items after which pending statements are flushed or executed; matches hibernate.jdbc.batch_size. */
+    private static final int BATCH_SIZE = 50;
+
+    /** Inserts a book, or refreshes its details when the title and author already exist. */
+    private static final String UPSERT_BOOK_SQL =
+            "INSERT INTO books (title, author, description, publication_date) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE description = VALUES(description), publication_date = VALUES(publication_date)";
+
+    /** Inserts a price for the book with the given title and author, or updates the price already stored for the URL. */
+    private static final String UPSERT_PRICE_SQL =
+            "INSERT INTO price (price, image_urls, urls, books_id) "
+                    + "SELECT ?, ?, ?, id FROM books WHERE title = ? AND author = ? "
+                    + "ON DUPLICATE KEY UPDATE price = VALUES(price), image_urls = VALUES(image_urls), books_id = VALUES(books_id)";
+
+    /** Inserts a compare price for the book with the given title and author, or updates the one stored for the URL and retailer. */
+    private static final String UPSERT_COMPARE_PRICE_SQL =
+            "INSERT INTO compare_prices (price, image_urls, urls, books_id, retailer) "
+                    + "SELECT ?, ?, ?, id, ? FROM books WHERE title = ? AND author = ? "
+                    + "ON DUPLICATE KEY UPDATE price = VALUES(price), image_urls = VALUES(image_urls), books_id = VALUES(books_id)";
+
+    /**
+     * Appends a price observation for the book with the given title and author, unless the price is unknown
+     * or equals the last observation for the book and retailer.
+     */
+    private static final String INSERT_PRICE_OBSERVATION_SQL =
+            "INSERT INTO price_observation (books_id, retailer, price, currency, observed_at) "
+                    + "SELECT b.id, ?, ?, ?, ? FROM books b WHERE b.title = ? AND b.author = ? AND ? IS NOT NULL "
+                    + "AND NOT (CAST(? AS DECIMAL(10,2)) <=> (SELECT o.price FROM price_observation o "
+                    + "WHERE o.books_id = b.id AND o.retailer = ? ORDER BY o.observed_at DESC, o.id DESC LIMIT 1))";
+
+    /** Counts the natural-key unique indexes from naturalKeyIndexes.sql that exist in the connected database. */
+    private static final String COUNT_NATURAL_KEY_INDEXES_SQL =
+            "SELECT COUNT(DISTINCT index_name) FROM information_schema.statistics "
+                    + "WHERE table_schema = DATABASE() AND non_unique = 0 "
+                    + "AND index_name IN ('uk_books_title_author', 'uk_price_urls', 'uk_compare_prices_urls_retailer')";
+
+    /** Number of natural-key unique indexes created by naturalKeyIndexes.sql. */
+    private static final int NATURAL_KEY_INDEX_COUNT = 3;
+
+    /** Books and prices already persisted, so unchanged items skip the database. */
+    private BookIdentityCache identityCache = new BookIdentityCache();
+
+    /** Whether {@link #saveAll(List)} uses the native upsert statements instead of loading existing rows. */
+    private boolean upsertEnabled = false;
+
+    /**
+     * Enables or disables the native upsert path used by {@link #saveAll(List)}.
+     * {@link #init()} enables it by itself when the natural-key unique indexes from naturalKeyIndexes.sql exist;
+     * without them every upsert inserts a new row.
+     *
+     * @param upsertEnabled True to write with INSERT ... ON DUPLICATE KEY UPDATE.
+     */
+    public void setUpsertEnabled(boolean upsertEnabled) {
+        this.upsertEnabled = upsertEnabled;
+    }
+
+    /**
+     * Sets the cache of persisted books and prices.
+     *
+     * @param identityCache BookIdentityCache instance
+     */
+    public void setIdentityCache(BookIdentityCache identityCache) {
+        this.identityCache = identityCache;
+    }
+
+    /**
+     * Returns the cache of persisted books and prices.
+     *
+     * @return The BookIdentityCache in use.
+     */
+    public BookIdentityCache getIdentityCache() {
+        return identityCache;
+    }
+
+    /**
+     * Returns whether the native upsert path is enabled.
+     *
+     * @return True if {@link #saveAll(List)} writes with INSERT ... ON DUPLICATE KEY UPDATE.
+     */
+    public boolean isUpsertEnabled() {
+        return upsertEnabled;
+    }
+
     /**
      * Saves or updates a book in the database.
      *
@@ -40,7 +152,7 @@ public class ProductDao {
 
             if (bookList.size() == 1) {
                 Books existingBook = bookList.get(0);
-                if (!book.equals(existingBook)) {
+                if (!book.hasSameContent(existingBook)) {
                     book.setId(existingBook.getId());
                     session.merge(book);
                     System.out.println("Book updated with ID: " + book.getId());
@@ -89,7 +201,7 @@ public class ProductDao {
 
             if (comparePriceList.size() == 1) {
                 ComparePrices existingComparePrice = comparePriceList.get(0);
-                if (!comparePrice.equals(existingComparePrice)) {
+                if (!comparePrice.hasSameContent(existingComparePrice)) {
                     comparePrice.setId(existingComparePrice.getId());
                     session.merge(comparePrice);
                     System.out.println("ComparePrice updated with ID: " + comparePrice.getId());
@@ -137,7 +249,7 @@ public class ProductDao {
 
             if (priceList.size() == 1) {
                 Price existingPrice = priceList.get(0);
-                if (!price.equals(existingPrice)) {
+                if (!price.hasSameContent(existingPrice)) {
                     price.setId(existingPrice.getId());
                     session.merge(price);
                     System.out.println("Price updated with ID: " + price.getId());
@@ -164,13 +276,462 @@ public class ProductDao {
         }
     }
 
+    /**
+     * Saves or updates a batch of scraped items in a single session and transaction.
+     * Each item is compared with the fingerprints in the identity cache first: items whose book and price
+     * are unchanged are skipped without touching the database, and only the changed part of the others is written.
+     * Existing rows are loaded with one query per table for the whole batch and updated in place,
+     * so Hibernate only issues UPDATE statements for rows whose values changed.
+     * The updates are sent in JDBC batches, but every new row is a single INSERT: the IDENTITY ids need the
+     * generated key of each insert, which disables Hibernate's insert batching.
+     * When the upsert path is enabled the changed items are written by {@link #upsertAll(List)} instead.
+     * The transaction only rolls back on InnoDB tables; on the MyISAM tables of the original dump,
+     * until naturalKeyIndexes.sql converts them, the rows written before a failure stay.
+     *
+     * @param items The scraped items to save or update.
+     * @throws Exception If the batch could not be saved; the transaction is rolled back on InnoDB tables.
+     */
+    public void saveAll(List<ScrapedItem> items) throws Exception {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        List<ScrapedItem> changedItems = new ArrayList<>();
+        for (ScrapedItem item : items) {
+            if (!isBookUnchanged(item) || !isPriceUnchanged(item)) {
+                changedItems.add(item);
+            }
+        }
+        if (changedItems.isEmpty()) {
+            System.out.println("No changes detected for batch of " + items.size() + " scraped items");
+            return;
+        }
+        if (upsertEnabled) {
+            upsertAll(changedItems);
+            return;
+        }
+
+        Session session = sessionFactory.getCurrentSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+
+            Set<String> titles = new LinkedHashSet<>();
+            Set<String> urls = new LinkedHashSet<>();
+            for (ScrapedItem item : changedItems) {
+                if (!isBookUnchanged(item)) {
+                    titles.add(item.getTitle());
+                }
+                if (!isPriceUnchanged(item)) {
+                    urls.add(item.getUrl());
+                }
+            }
+
+            // Load the existing rows that may need to change, with one query per table
+            Map<String, Books> booksByKey = new HashMap<>();
+            if (!titles.isEmpty()) {
+                for (Books existingBook : session.createQuery("from Books where title in (:titles)", Books.class)
+                        .setParameterList("titles", titles)
+                        .getResultList()) {
+                    if (booksByKey.putIfAbsent(BookIdentityCache.key(existingBook.getTitle(), existingBook.getAuthor()), existingBook) != null) {
+                        System.out.println("Multiple books with the same title and author found, using the first: " + existingBook.getTitle());
+                    }
+                }
+            }
+            Map<String, Price> pricesByUrl = new HashMap<>();
+            Map<String, ComparePrices> comparePricesByKey = new HashMap<>();
+            if (!urls.isEmpty()) {
+                for (Price existingPrice : session.createQuery("from Price where urls in (:urls)", Price.class)
+                        .setParameterList("urls", urls)
+                        .getResultList()) {
+                    pricesByUrl.putIfAbsent(existingPrice.getUrls(), existingPrice);
+                }
+                for (ComparePrices existingComparePrice : session.createQuery("from ComparePrices where urls in (:urls)", ComparePrices.class)
+                        .setParameterList("urls", urls)
+                        .getResultList()) {
+                    comparePricesByKey.putIfAbsent(existingComparePrice.getUrls() + "|" + existingComparePrice.getRetailer(), existingComparePrice);
+                }
+            }
+
+            List<Integer> bookIds = new ArrayList<>(changedItems.size());
+            LocalDateTime observedAt = LocalDateTime.now(ZoneOffset.UTC);
+            int observed = 0;
+            int saved = 0;
+            for (ScrapedItem item : changedItems) {
+                Integer bookId = identityCache.getBookId(item.getTitle(), item.getAuthor());
+                if (!isBookUnchanged(item)) {
+                    Books book = booksByKey.get(BookIdentityCache.key(item.getTitle(), item.getAuthor()));
+                    if (book == null) {
+                        book = item.toBook();
+                        session.save(book);
+                        booksByKey.put(BookIdentityCache.key(book.getTitle(), book.getAuthor()), book);
+                    } else {
+                        // Managed entity, dirty checking decides whether an UPDATE is needed
+                        book.setDescription(item.getDescription());
+                        book.setPublicationDate(item.getPublicationDate());
+                    }
+                    bookId = book.getId();
+                }
+                bookIds.add(bookId);
+
+                if (!isPriceUnchanged(item)) {
+                    Price price = pricesByUrl.get(item.getUrl());
+                    if (price == null) {
+                        price = item.toPrice(bookId);
+                        session.save(price);
+                        pricesByUrl.put(price.getUrls(), price);
+                    } else {
+                        price.setPrice(item.getPrice());
+                        price.setImageUrls(item.getImageUrl());
+                        price.setBooksId(bookId);
+                    }
+
+                    ComparePrices comparePrice = comparePricesByKey.get(item.getUrl() + "|" + item.getRetailer());
+                    // The price history only grows when the retailer's price actually moved
+                    if (item.getPrice() != null && (comparePrice == null || !item.getPrice().equals(comparePrice.getPrice()))) {
+                        session.save(item.toPriceObservation(bookId, observedAt));
+                        observed++;
+                    }
+                    if (comparePrice == null) {
+                        comparePrice = item.toComparePrice(bookId);
+                        session.save(comparePrice);
+                        comparePricesByKey.put(comparePrice.getUrls() + "|" + comparePrice.getRetailer(), comparePrice);
+                    } else {
+                        comparePrice.setPrice(item.getPrice());
+                        comparePrice.setImageUrls(item.getImageUrl());
+                        comparePrice.setBooksId(bookId);
+                    }
+                }
+
+                if (++saved % BATCH_SIZE == 0) {
+                    session.flush(); // Send the pending updates as one JDBC batch, inserts have already gone one by one
+                }
+            }
+
+            transaction.commit();
+
+            // Only cache what has been committed
+            for (int i = 0; i < changedItems.size(); i++) {
+                cacheItem(changedItems.get(i), bookIds.get(i));
+            }
+            System.out.println("Saved " + changedItems.size() + " of " + items.size() + " scraped items, the rest were unchanged; "
+                    + observed + " price changes recorded");
+        } catch (Exception ex) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw ex;
+        } finally {
+            if (session != null && session.isOpen()) {
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * Updates the stored prices of books that are already known, from prices read on a listing page.
+     * The existing price rows are loaded with one query per table and updated in place, so only prices that
+     * actually changed are written, and every changed retailer price is appended to the price history.
+     * URLs without a stored price are left alone; their books need a full scrape.
+     *
+     * @param retailer    The retailer the prices belong to.
+     * @param currency    The currency of the prices.
+     * @param pricesByUrl The current price per book page URL.
+     * @return The URLs that already had a stored price and were refreshed.
+     * @throws Exception If the prices could not be saved; the transaction is rolled back on InnoDB tables.
+     */
+    public Set<String> refreshPrices(String retailer, String currency, Map<String, Double> pricesByUrl) throws Exception {
+        Set<String> knownUrls = new LinkedHashSet<>();
+        if (pricesByUrl == null || pricesByUrl.isEmpty()) {
+            return knownUrls;
+        }
+        Session session = sessionFactory.getCurrentSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            Set<String> changedUrls = new LinkedHashSet<>();
+            LocalDateTime observedAt = LocalDateTime.now(ZoneOffset.UTC);
+            for (Price existingPrice : session.createQuery("from Price where urls in (:urls)", Price.class)
+                    .setParameterList("urls", pricesByUrl.keySet())
+                    .getResultList()) {
+                Double price = pricesByUrl.get(existingPrice.getUrls());
+                knownUrls.add(existingPrice.getUrls());
+                if (!price.equals(existingPrice.getPrice())) {
+                    existingPrice.setPrice(price); // Managed entity, flushed as an UPDATE on commit
+                    changedUrls.add(existingPrice.getUrls());
+                }
+            }
+            for (ComparePrices existingComparePrice : session.createQuery(
+                            "from ComparePrices where urls in (:urls) and retailer = :retailer", ComparePrices.class)
+                    .setParameterList("urls", pricesByUrl.keySet())
+                    .setParameter("retailer", retailer)
+                    .getResultList()) {
+                Double price = pricesByUrl.get(existingComparePrice.getUrls());
+                knownUrls.add(existingComparePrice.getUrls());
+                if (!price.equals(existingComparePrice.getPrice())) {
+                    existingComparePrice.setPrice(price);
+                    changedUrls.add(existingComparePrice.getUrls());
+
+                    PriceObservation observation = new PriceObservation();
+                    observation.setBooksId(existingComparePrice.getBooksId());
+                    observation.setRetailer(retailer);
+                    observation.setPrice(price);
+                    observation.setCurrency(currency);
+                    observation.setObservedAt(observedAt);
+                    session.save(observation);
+                }
+            }
+            transaction.commit();
+
+            // The cached fingerprints describe the old prices
+            changedUrls.forEach(identityCache::removePrice);
+            System.out.println("Refreshed " + knownUrls.size() + " " + retailer + " prices from the listing, "
+                    + changedUrls.size() + " changed");
+            return knownUrls;
+        } catch (Exception ex) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw ex;
+        } finally {
+            if (session != null && session.isOpen()) {
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * Saves or updates a batch of scraped items with one atomic INSERT ... ON DUPLICATE KEY UPDATE per row.
+     * The unique indexes on the natural keys decide whether a row is inserted or updated,
+     * so no rows are loaded first and concurrent scrapers cannot create duplicates.
+     * Prices resolve their book ID inside the statement from the title and author, and a price observation is
+     * only appended when the price differs from the last one recorded for the book and retailer.
+     * The book IDs are read back with one query per batch, so the identity cache learns the books as well as the prices.
+     *
+     * @param items The scraped items to save or update.
+     * @throws Exception If the batch could not be saved; the transaction is rolled back.
+     */
+    public void upsertAll(List<ScrapedItem> items) throws Exception {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        Session session = sessionFactory.getCurrentSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            session.doWork(connection -> {
+                try (PreparedStatement books = connection.prepareStatement(UPSERT_BOOK_SQL);
+                     PreparedStatement prices = connection.prepareStatement(UPSERT_PRICE_SQL);
+                     PreparedStatement comparePrices = connection.prepareStatement(UPSERT_COMPARE_PRICE_SQL);
+                     PreparedStatement observations = connection.prepareStatement(INSERT_PRICE_OBSERVATION_SQL)) {
+                    Timestamp observedAt = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+                    int pending = 0;
+                    for (ScrapedItem item : items) {
+                        Date publicationDate = item.getPublicationDate() != null ? Date.valueOf(item.getPublicationDate()) : null;
+
+                        books.setString(1, item.getTitle());
+                        books.setString(2, item.getAuthor());
+                        books.setString(3, item.getDescription());
+                        books.setObject(4, publicationDate, Types.DATE);
+                        books.addBatch();
+
+                        prices.setObject(1, item.getPrice(), Types.DOUBLE);
+                        prices.setString(2, item.getImageUrl());
+                        prices.setString(3, item.getUrl());
+                        prices.setString(4, item.getTitle());
+                        prices.setString(5, item.getAuthor());
+                        prices.addBatch();
+
+                        comparePrices.setObject(1, item.getPrice(), Types.DOUBLE);
+                        comparePrices.setString(2, item.getImageUrl());
+                        comparePrices.setString(3, item.getUrl());
+                        comparePrices.setString(4, item.getRetailer());
+                        comparePrices.setString(5, item.getTitle());
+                        comparePrices.setString(6, item.getAuthor());
+                        comparePrices.addBatch();
+
+                        observations.setString(1, item.getRetailer());
+                        observations.setObject(2, item.getPrice(), Types.DOUBLE);
+                        observations.setString(3, item.getCurrency());
+                        observations.setTimestamp(4, observedAt);
+                        observations.setString(5, item.getTitle());
+                        observations.setString(6, item.getAuthor());
+                        observations.setObject(7, item.getPrice(), Types.DOUBLE);
+                        observations.setObject(8, item.getPrice(), Types.DOUBLE);
+                        observations.setString(9, item.getRetailer());
+                        observations.addBatch();
+
+                        if (++pending % BATCH_SIZE == 0) {
+                            // Books first, the price statements look up the book IDs
+                            books.executeBatch();
+                            prices.executeBatch();
+                            comparePrices.executeBatch();
+                            observations.executeBatch();
+                        }
+                    }
+                    books.executeBatch();
+                    prices.executeBatch();
+                    comparePrices.executeBatch();
+                    observations.executeBatch();
+                }
+            });
+
+            // The upsert does not return the IDs of existing books, read them back for the identity cache
+            Set<String> titles = new LinkedHashSet<>();
+            items.forEach(item -> titles.add(item.getTitle()));
+            Map<String, Integer> bookIds = new HashMap<>();
+            for (Object[] row : session.createQuery("select b.id, b.title, b.author from Books b where b.title in (:titles)", Object[].class)
+                    .setParameterList("titles", titles)
+                    .getResultList()) {
+                bookIds.putIfAbsent(BookIdentityCache.key((String) row[1], (String) row[2]), (Integer) row[0]);
+            }
+
+            transaction.commit();
+
+            for (ScrapedItem item : items) {
+                cacheItem(item, bookIds.get(BookIdentityCache.key(item.getTitle(), item.getAuthor())));
+            }
+            System.out.println("Upserted batch of " + items.size() + " scraped items");
+        } catch (Exception ex) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw ex;
+        } finally {
+            if (session != null && session.isOpen()) {
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the price history of a book: the observations recorded in a time range, preceded by the last
+     * observation before the range, which holds the price at its start. Observations are only recorded when
+     * a price changes, so each one holds until the next.
+     *
+     * @param booksId  The ID of the book.
+     * @param retailer The retailer, or null for all retailers.
+     * @param from     The start of the range, inclusive, in UTC.
+     * @param to       The end of the range, exclusive, in UTC.
+     * @return The observations in time order, per retailer when no retailer is given.
+     */
+    public List<PriceObservation> findPriceHistory(Integer booksId, String retailer, LocalDateTime from, LocalDateTime to) {
+        String retailerFilter = retailer != null ? " and o.retailer = :retailer" : "";
+        try (Session session = sessionFactory.openSession()) {
+            // The last observation before the range, per retailer, found through the book/retailer/time index
+            Query<PriceObservation> startQuery = session.createQuery("from PriceObservation o where o.booksId = :booksId" + retailerFilter
+                            + " and o.observedAt = (select max(p.observedAt) from PriceObservation p"
+                            + " where p.booksId = o.booksId and p.retailer = o.retailer and p.observedAt < :from)", PriceObservation.class)
+                    .setParameter("booksId", booksId)
+                    .setParameter("from", from);
+            Query<PriceObservation> rangeQuery = session.createQuery("from PriceObservation o where o.booksId = :booksId" + retailerFilter
+                            + " and o.observedAt >= :from and o.observedAt < :to", PriceObservation.class)
+                    .setParameter("booksId", booksId)
+                    .setParameter("from", from)
+                    .setParameter("to", to);
+            if (retailer != null) {
+                startQuery.setParameter("retailer", retailer);
+                rangeQuery.setParameter("retailer", retailer);
+            }
+
+            List<PriceObservation> history = new ArrayList<>(startQuery.getResultList());
+            history.addAll(rangeQuery.getResultList());
+            history.sort(Comparator.comparing(PriceObservation::getRetailer)
+                    .thenComparing(PriceObservation::getObservedAt)
+                    .thenComparing(PriceObservation::getId));
+            return history;
+        }
+    }
+
+    /**
+     * Loads the IDs and fingerprints of stored books, and the fingerprints of the prices stored per URL,
+     * into the identity cache so the first scrape after startup can already skip unchanged items.
+     */
+    public void warmCache() {
+        if (sessionFactory == null) {
+            return;
+        }
+        try (Session session = sessionFactory.openSession()) {
+            for (Books book : session.createQuery("from Books", Books.class).getResultList()) {
+                identityCache.putBook(book.getTitle(), book.getAuthor(), book.getId(), BookIdentityCache.bookFingerprint(
+                        book.getTitle(), book.getAuthor(), book.getDescription(), book.getPublicationDate()));
+            }
+            for (Object[] row : session.createQuery(
+                    "select cp, b.title, b.author from ComparePrices cp, Books b where cp.booksId = b.id", Object[].class).getResultList()) {
+                ComparePrices comparePrice = (ComparePrices) row[0];
+                identityCache.putPrice(comparePrice.getUrls(), BookIdentityCache.priceFingerprint((String) row[1], (String) row[2],
+                        comparePrice.getPrice(), comparePrice.getImageUrls(), comparePrice.getRetailer()));
+            }
+            System.out.println("Identity cache warmed with " + identityCache.getBookCount() + " books and "
+                    + identityCache.getPriceCount() + " prices");
+        } catch (Exception ex) {
+            System.out.println("Unable to warm the identity cache");
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Enables the native upsert path when the natural-key unique indexes from naturalKeyIndexes.sql exist,
+     * and leaves it disabled otherwise.
+     */
+    public void detectNaturalKeyIndexes() {
+        if (sessionFactory == null) {
+            return;
+        }
+        try (Session session = sessionFactory.openSession()) {
+            Number indexCount = (Number) session.createNativeQuery(COUNT_NATURAL_KEY_INDEXES_SQL).getSingleResult();
+            upsertEnabled = indexCount.intValue() == NATURAL_KEY_INDEX_COUNT;
+            System.out.println(upsertEnabled ? "Natural-key indexes found, writing with the native upsert path"
+                    : "Natural-key indexes missing, run naturalKeyIndexes.sql to enable the native upsert path");
+        } catch (Exception ex) {
+            System.out.println("Unable to check for the natural-key indexes, the native upsert path stays disabled");
+            ex.printStackTrace();
+        }
+    }
+
+    private boolean isBookUnchanged(ScrapedItem item) {
+        return identityCache.isBookUnchanged(item.getTitle(), item.getAuthor(), BookIdentityCache.bookFingerprint(
+                item.getTitle(), item.getAuthor(), item.getDescription(), item.getPublicationDate()));
+    }
+
+    private boolean isPriceUnchanged(ScrapedItem item) {
+        return identityCache.isPriceUnchanged(item.getUrl(), priceFingerprint(item));
+    }
+
+    private static long priceFingerprint(ScrapedItem item) {
+        return BookIdentityCache.priceFingerprint(item.getTitle(), item.getAuthor(), item.getPrice(), item.getImageUrl(), item.getRetailer());
+    }
+
+    /**
+     * Records a committed item in the identity cache.
+     */
+    private void cacheItem(ScrapedItem item, Integer bookId) {
+        identityCache.putBook(item.getTitle(), item.getAuthor(), bookId, BookIdentityCache.bookFingerprint(
+                item.getTitle(), item.getAuthor(), item.getDescription(), item.getPublicationDate()));
+        identityCache.putPrice(item.getUrl(), priceFingerprint(item));
+    }
+
+    /**
+     * Returns the wait time and usage metrics of the connection pool.
+     *
+     * @return The connection pool metrics.
+     */
+    public ConnectionPoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
     /**
      * Initializes the Hibernate session factory using the configuration file 'hibernate.cfg.xml'.
+     * Connections come from a HikariCP pool built from the hibernate.connection.* settings,
+     * tuned by the hibernate.hikari.* settings of the same file.
      */
     public void init() {
         try {
             StandardServiceRegistryBuilder standardServiceRegistryBuilder = new StandardServiceRegistryBuilder();
-            standardServiceRegistryBuilder.configure("hibernate.cfg.xml");
+            LoadedConfig loadedConfig = standardServiceRegistryBuilder.getConfigLoader().loadConfigXmlResource("hibernate.cfg.xml");
+            standardServiceRegistryBuilder.configure(loadedConfig);
+            dataSource = createDataSource(loadedConfig.getConfigurationValues());
+            standardServiceRegistryBuilder.applySetting(AvailableSettings.DATASOURCE, dataSource);
 
             StandardServiceRegistry registry = standardServiceRegistryBuilder.build();
             try {
@@ -182,9 +743,53 @@ public class ProductDao {
             }
 
             System.out.println("Session Factory built successfully");
+            detectNaturalKeyIndexes();
+            warmCache();
         } catch (Throwable ex) {
             ex.printStackTrace();
             System.out.println("SessionFactory creation failed." + ex);
         }
     }
+
+    /**
+     * Closes the session factory and the connection pool, printing the pool metrics first.
+     */
+    public void close() {
+        if (dataSource != null) {
+            poolMetrics.printStats();
+        }
+        if (sessionFactory != null && !sessionFactory.isClosed()) {
+            sessionFactory.close();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Builds the pooled DataSource from the Hibernate settings.
+     *
+     * @param settings The settings loaded from hibernate.cfg.xml.
+     * @return The pooled DataSource.
+     */
+    private HikariDataSource createDataSource(Map<?, ?> settings) {
+        Properties poolProperties = new Properties();
+        for (Map.Entry<?, ?> setting : settings.entrySet()) {
+            String key = String.valueOf(setting.getKey());
+            if (key.startsWith(POOL_PROPERTY_PREFIX)) {
+                poolProperties.setProperty(key.substring(POOL_PROPERTY_PREFIX.length()), String.valueOf(setting.getValue()));
+            }
+        }
+
+        HikariConfig config = new HikariConfig(poolProperties);
+        config.setPoolName("bookmatch");
+        config.setDriverClassName((String) settings.get(AvailableSettings.DRIVER));
+        config.setJdbcUrl((String) settings.get(AvailableSettings.URL));
+        config.setUsername((String) settings.get(AvailableSettings.USER));
+        Object password = settings.get(AvailableSettings.PASS);
+        config.setPassword(password != null ? String.valueOf(password) : "");
+        config.setAutoCommit(false); // Hibernate manages the transactions
+        config.setMetricsTrackerFactory(poolMetrics);
+        return new HikariDataSource(config);
+    }
 }
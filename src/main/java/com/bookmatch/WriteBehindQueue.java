@@ -0,0 +1,339 @@
+package com.bookmatch;
+
+import com.bookmatch.models.ScrapedItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A bounded write-behind stage between the scrapers and the database.
+ * Scrapers enqueue parsed items and carry on fetching pages, while a small pool of writer threads
+ * drains the queue in batches through {@link ProductDao#saveAll(List)}.
+ * When the queue is full, {@link #enqueue(ScrapedItem)} blocks, which applies backpressure
+ * to the scrapers instead of buffering without limit.
+ * A batch that fails to write is retried with backoff, and then written item by item,
+ * so only the items that cannot be written at all are dropped.
+ * Items left in the queue when the writers stop early are settled as not written, so nobody waits for them.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+
+    /** Default maximum number of items waiting to be written. */
+    public static final int DEFAULT_CAPACITY = 500;
+
+    /** Default number of database writer threads. */
+    public static final int DEFAULT_WRITERS = 2;
+
+    /** Default maximum number of items written in one batch. */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    /** Number of times a batch is written before its items are written one by one. */
+    public static final int BATCH_ATTEMPTS = 3;
+
+    private static final long POLL_MILLIS = 200; // How long an idle writer waits before checking for shutdown
+    private static final long RETRY_BACKOFF_MILLIS = 100; // Wait before the second attempt at a batch, doubled for each further one
+
+    private final ProductDao productDao;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final List<Thread> writers = new ArrayList<>();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicInteger runningWriters = new AtomicInteger();
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock(); // Shared by producers, taken alone to close
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs a write-behind queue with the default capacity, writer count and batch size.
+     *
+     * @param productDao The DAO used by the writer threads.
+     */
+    public WriteBehindQueue(ProductDao productDao) {
+        this(productDao, DEFAULT_CAPACITY, DEFAULT_WRITERS, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a write-behind queue and starts its writer threads.
+     *
+     * @param productDao  The DAO used by the writer threads.
+     * @param capacity    Maximum number of items waiting to be written before producers block.
+     * @param writerCount Number of database writer threads.
+     * @param batchSize   Maximum number of items written in one batch.
+     */
+    public WriteBehindQueue(ProductDao productDao, int capacity, int writerCount, int batchSize) {
+        if (capacity < 1 || writerCount < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Capacity, writer count and batch size must be positive");
+        }
+        this.productDao = productDao;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+
+        runningWriters.set(writerCount);
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::drain, "db-writer-" + (i + 1));
+            writer.setDaemon(true); // close() flushes on shutdown, writers must not keep the JVM alive
+            writers.add(writer);
+            writer.start();
+        }
+    }
+
+    /**
+     * Adds an item to the queue, blocking while the queue is full.
+     *
+     * @param item The scraped item to write.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for space.
+     * @throws IllegalStateException If the queue has been closed.
+     */
+    public void enqueue(ScrapedItem item) throws InterruptedException {
+        put(new Pending(item, null));
+    }
+
+    /**
+     * Adds several items to the queue, blocking while the queue is full.
+     *
+     * @param items The scraped items to write.
+     * @return A future completed with the items that were written, once every item was written or dropped.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for space.
+     * @throws IllegalStateException If the queue has been closed.
+     */
+    public CompletableFuture<List<ScrapedItem>> enqueueAll(List<ScrapedItem> items) throws InterruptedException {
+        Ticket ticket = new Ticket(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                put(new Pending(items.get(i), ticket));
+            } catch (InterruptedException | IllegalStateException ex) {
+                for (int j = i; j < items.size(); j++) {
+                    ticket.settle(items.get(j), false); // Never queued, so never written
+                }
+                throw ex;
+            }
+        }
+        return ticket.written;
+    }
+
+    /**
+     * Queues an item unless the queue is closed, waiting while it is full. The check and the insertion are made
+     * under the close lock, so no item is queued once the writers may have stopped.
+     */
+    private void put(Pending pending) throws InterruptedException {
+        while (true) {
+            closeLock.readLock().lockInterruptibly();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("Write-behind queue has been closed");
+                }
+                // Give up the lock now and then while the queue is full, so that closing is not held up
+                if (queue.offer(pending, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } finally {
+                closeLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items waiting to be written.
+     *
+     * @return The current queue depth.
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of items written successfully.
+     *
+     * @return The number of written items.
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * Returns the number of items that could not be written, even on their own.
+     *
+     * @return The number of failed items.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Stops accepting new items, waits for the writers to drain the queue and stops them.
+     */
+    @Override
+    public void close() {
+        stopAccepting();
+        for (Thread writer : writers) {
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        System.out.println("Write-behind queue closed: " + writtenCount.get() + " written, " + failedCount.get() + " failed");
+    }
+
+    /**
+     * Closes the queue to new items once no producer is between its closed check and its insertion.
+     */
+    private void stopAccepting() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writer loop: takes the next available item, adds whatever else is queued up to the batch size
+     * and writes the batch, until the queue is closed and empty or the writer is interrupted.
+     */
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Pending first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (writeBatch(batch)) {
+                    writtenCount.addAndGet(batch.size());
+                    batch.forEach(pending -> pending.settle(true));
+                } else {
+                    batch.forEach(this::writeAlone);
+                }
+                batch.clear();
+            }
+        } finally {
+            if (runningWriters.decrementAndGet() == 0) {
+                failRemaining();
+            }
+        }
+    }
+
+    /**
+     * Run by the last writer to stop: closes the queue and settles the items that no writer is left to write
+     * as not written.
+     */
+    private void failRemaining() {
+        stopAccepting();
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            failedCount.addAndGet(remaining.size());
+            System.out.println("Write-behind writers stopped with " + remaining.size() + " items not written");
+            remaining.forEach(pending -> pending.settle(false));
+        }
+    }
+
+    /**
+     * Writes a batch, retrying with exponential backoff while it fails.
+     *
+     * @return True if the batch was written, false if it failed on every attempt.
+     */
+    private boolean writeBatch(List<Pending> batch) {
+        List<ScrapedItem> items = batch.stream().map(pending -> pending.item).toList();
+        long backoff = RETRY_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                productDao.saveAll(items);
+                return true;
+            } catch (Exception ex) {
+                if (attempt >= BATCH_ATTEMPTS) {
+                    System.out.println("Write-behind batch of " + items.size() + " items failed " + attempt + " times, writing the items one by one");
+                    ex.printStackTrace();
+                    return false;
+                }
+                System.out.println("Write-behind batch of " + items.size() + " items failed, retrying in " + backoff + " ms");
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff *= 2;
+        }
+    }
+
+    /**
+     * Writes one item of a failed batch on its own, dropping it if it fails again.
+     */
+    private void writeAlone(Pending pending) {
+        try {
+            productDao.saveAll(List.of(pending.item));
+            writtenCount.incrementAndGet();
+            pending.settle(true);
+        } catch (Exception ex) {
+            failedCount.incrementAndGet();
+            System.out.println("Dropping book that could not be written: " + pending.item.getUrl());
+            ex.printStackTrace();
+            pending.settle(false);
+        }
+    }
+
+    /**
+     * An item waiting to be written, with the ticket of the call that enqueued it.
+     */
+    private static class Pending {
+        private final ScrapedItem item;
+        private final Ticket ticket; // Null for items enqueued on their own
+
+        private Pending(ScrapedItem item, Ticket ticket) {
+            this.item = item;
+            this.ticket = ticket;
+        }
+
+        private void settle(boolean written) {
+            if (ticket != null) {
+                ticket.settle(item, written);
+            }
+        }
+    }
+
+    /**
+     * Collects the outcome of the items enqueued by one {@link #enqueueAll(List)} call,
+     * and completes its future once all of them were written or dropped.
+     */
+    private static class Ticket {
+        private final CompletableFuture<List<ScrapedItem>> written = new CompletableFuture<>();
+        private final List<ScrapedItem> writtenItems = new ArrayList<>();
+        private int remaining;
+
+        private Ticket(int itemCount) {
+            this.remaining = itemCount;
+            if (itemCount == 0) {
+                written.complete(List.of());
+            }
+        }
+
+        private synchronized void settle(ScrapedItem item, boolean itemWritten) {
+            if (itemWritten) {
+                writtenItems.add(item);
+            }
+            if (--remaining == 0) {
+                written.complete(List.copyOf(writtenItems));
+            }
+        }
+    }
+}
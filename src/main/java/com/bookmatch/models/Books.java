@@ -2,9 +2,11 @@ package com.bookmatch.models;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.util.Objects;
 
 /**
  * Entity class representing a book.
+ * The unique index on title and author is created by naturalKeyIndexes.sql, not by Hibernate.
  */
 @Entity
 @Table(name = "books")
@@ -131,4 +133,47 @@ public class Books {
                 ", publicationDate=" + publicationDate +
                 '}';
     }
+
+    /**
+     * Compares the stored content of two book entities, ignoring the generated ID,
+     * so an unchanged re-scrape can be detected without issuing an UPDATE.
+     *
+     * @param other The book entity to compare with.
+     * @return True if both entities hold the same values.
+     */
+    public boolean hasSameContent(Books other) {
+        return other != null &&
+                Objects.equals(title, other.title) &&
+                Objects.equals(author, other.author) &&
+                Objects.equals(description, other.description) &&
+                Objects.equals(publicationDate, other.publicationDate);
+    }
+
+    /**
+     * Compares two book entities by their generated ID, so an entity keeps its identity in sets and maps
+     * while its values change. An entity that has not been saved yet is only equal to itself.
+     *
+     * @param o The object to compare with.
+     * @return True if both are the same row.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Books)) {
+            return false;
+        }
+        return id != null && id.equals(((Books) o).getId()); // Through the getter, a lazy proxy has no field values
+    }
+
+    /**
+     * Returns the same hash code for every book entity, so it does not change when the ID is assigned on save.
+     *
+     * @return The hash code of the entity class.
+     */
+    @Override
+    public int hashCode() {
+        return Books.class.hashCode();
+    }
 }
@@ -1,9 +1,11 @@
 package com.bookmatch.models;
 
 import javax.persistence.*;
+import java.util.Objects;
 
 /**
  * Entity class representing the table 'compare_prices' for storing price and retailer information of books.
+ * The unique index on the URL and retailer is created by naturalKeyIndexes.sql, not by Hibernate.
  */
 @Entity
 @Table(name = "compare_prices")
@@ -153,4 +155,47 @@ public class ComparePrices {
                 ", retailer='" + retailer + '\'' +
                 '}';
     }
+
+    /**
+     * Compares the stored content of two compare price entities, ignoring the generated ID,
+     * so an unchanged re-scrape can be detected without issuing an UPDATE.
+     *
+     * @param other The compare price entity to compare with.
+     * @return True if both entities hold the same values.
+     */
+    public boolean hasSameContent(ComparePrices other) {
+        return other != null &&
+                Objects.equals(price, other.price) &&
+                Objects.equals(imageUrls, other.imageUrls) &&
+                Objects.equals(urls, other.urls) &&
+                Objects.equals(booksId, other.booksId) &&
+                Objects.equals(retailer, other.retailer);
+    }
+
+    /**
+     * Compares two compare price entities by their generated ID, as {@link Books#equals(Object)} does.
+     *
+     * @param o The object to compare with.
+     * @return True if both are the same row.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ComparePrices)) {
+            return false;
+        }
+        return id != null && id.equals(((ComparePrices) o).getId());
+    }
+
+    /**
+     * Returns the same hash code for every compare price entity, as {@link Books#hashCode()} does.
+     *
+     * @return The hash code of the entity class.
+     */
+    @Override
+    public int hashCode() {
+        return ComparePrices.class.hashCode();
+    }
 }
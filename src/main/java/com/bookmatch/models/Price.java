@@ -1,9 +1,11 @@
 package com.bookmatch.models;
 
 import javax.persistence.*;
+import java.util.Objects;
 
 /**
  * Represents the price details of a book.
+ * The unique index on the URL is created by naturalKeyIndexes.sql, not by Hibernate.
  */
 @Entity
 @Table(name = "price")
@@ -125,4 +127,46 @@ public class Price {
                 ", booksId=" + booksId +
                 '}';
     }
+
+    /**
+     * Compares the stored content of two price entities, ignoring the generated ID,
+     * so an unchanged re-scrape can be detected without issuing an UPDATE.
+     *
+     * @param other The price entity to compare with.
+     * @return True if both entities hold the same values.
+     */
+    public boolean hasSameContent(Price other) {
+        return other != null &&
+                Objects.equals(price, other.price) &&
+                Objects.equals(imageUrls, other.imageUrls) &&
+                Objects.equals(urls, other.urls) &&
+                Objects.equals(booksId, other.booksId);
+    }
+
+    /**
+     * Compares two price entities by their generated ID, as {@link Books#equals(Object)} does.
+     *
+     * @param o The object to compare with.
+     * @return True if both are the same row.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Price)) {
+            return false;
+        }
+        return id != null && id.equals(((Price) o).getId());
+    }
+
+    /**
+     * Returns the same hash code for every price entity, as {@link Books#hashCode()} does.
+     *
+     * @return The hash code of the entity class.
+     */
+    @Override
+    public int hashCode() {
+        return Price.class.hashCode();
+    }
 }
@@ -0,0 +1,182 @@
+package com.bookmatch.models;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Represents one observed price of a book at a retailer. Observations are only appended, and only when
+ * the price differs from the last one recorded for the book and retailer, so the rows between two
+ * observation times form the book's price history at that retailer.
+ * The table is range partitioned by observation time, see priceHistory.sql.
+ */
+@Entity
+@Table(name = "price_observation",
+        indexes = @Index(name = "idx_price_observation_book_retailer_time", columnList = "books_id, retailer, observed_at"))
+public class PriceObservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "books_id", nullable = false)
+    private Integer booksId;
+
+    @Column(name = "retailer", nullable = false, length = 32)
+    private String retailer;
+
+    @Column(name = "price", nullable = false, columnDefinition = "DECIMAL(10,2)")
+    private Double price;
+
+    @Column(name = "currency", nullable = false, columnDefinition = "CHAR(3)")
+    private String currency;
+
+    @Column(name = "observed_at", nullable = false)
+    private LocalDateTime observedAt;
+
+    /**
+     * Retrieves the ID of the observation.
+     *
+     * @return The ID of the observation.
+     */
+    public Long getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets the ID of the observation.
+     *
+     * @param id The ID to set.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Retrieves the ID of the book that was observed.
+     *
+     * @return The ID of the book.
+     */
+    public Integer getBooksId() {
+        return this.booksId;
+    }
+
+    /**
+     * Sets the ID of the book that was observed.
+     *
+     * @param booksId The ID of the book to set.
+     */
+    public void setBooksId(Integer booksId) {
+        this.booksId = booksId;
+    }
+
+    /**
+     * Retrieves the retailer offering the book.
+     *
+     * @return The retailer name.
+     */
+    public String getRetailer() {
+        return this.retailer;
+    }
+
+    /**
+     * Sets the retailer offering the book.
+     *
+     * @param retailer The retailer name to set.
+     */
+    public void setRetailer(String retailer) {
+        this.retailer = retailer;
+    }
+
+    /**
+     * Retrieves the observed price.
+     *
+     * @return The price.
+     */
+    public Double getPrice() {
+        return this.price;
+    }
+
+    /**
+     * Sets the observed price.
+     *
+     * @param price The price to set.
+     */
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    /**
+     * Retrieves the ISO 4217 code of the price's currency.
+     *
+     * @return The currency code, e.g. "GBP".
+     */
+    public String getCurrency() {
+        return this.currency;
+    }
+
+    /**
+     * Sets the ISO 4217 code of the price's currency.
+     *
+     * @param currency The currency code to set.
+     */
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Retrieves when the price was observed, in UTC.
+     *
+     * @return The observation time.
+     */
+    public LocalDateTime getObservedAt() {
+        return this.observedAt;
+    }
+
+    /**
+     * Sets when the price was observed, in UTC.
+     *
+     * @param observedAt The observation time to set.
+     */
+    public void setObservedAt(LocalDateTime observedAt) {
+        this.observedAt = observedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceObservation{" +
+                "id=" + id +
+                ", booksId=" + booksId +
+                ", retailer='" + retailer + '\'' +
+                ", price=" + price +
+                ", currency='" + currency + '\'' +
+                ", observedAt=" + observedAt +
+                '}';
+    }
+
+    /**
+     * Compares two observations by their generated ID, as {@link Books#equals(Object)} does.
+     *
+     * @param o The object to compare with.
+     * @return True if both are the same row.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PriceObservation)) {
+            return false;
+        }
+        return id != null && id.equals(((PriceObservation) o).getId());
+    }
+
+    /**
+     * Returns the same hash code for every observation, as {@link Books#hashCode()} does.
+     *
+     * @return The hash code of the entity class.
+     */
+    @Override
+    public int hashCode() {
+        return PriceObservation.class.hashCode();
+    }
+}
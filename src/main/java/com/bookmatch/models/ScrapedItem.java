@@ -0,0 +1,285 @@
+package com.bookmatch.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Represents the details of a single book offer as extracted from a retailer page,
+ * before it is split into {@link Books}, {@link Price}, {@link ComparePrices} and {@link PriceObservation} entities.
+ */
+public class ScrapedItem {
+
+    private String title;
+    private String author;
+    private String description;
+    private LocalDate publicationDate;
+    private String imageUrl;
+    private Double price;
+    private String url;
+    private String retailer;
+    private String currency;
+    private String isbn;
+
+    /**
+     * Get the title of the book.
+     *
+     * @return The title of the book.
+     */
+    public String getTitle() {
+        return this.title;
+    }
+
+    /**
+     * Set the title of the book.
+     *
+     * @param title The title of the book.
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Get the author of the book.
+     *
+     * @return The author of the book.
+     */
+    public String getAuthor() {
+        return this.author;
+    }
+
+    /**
+     * Set the author of the book.
+     *
+     * @param author The author of the book.
+     */
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    /**
+     * Get the description of the book.
+     *
+     * @return The description of the book.
+     */
+    public String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Set the description of the book.
+     *
+     * @param description The description of the book.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Get the publication date of the book.
+     *
+     * @return The publication date of the book.
+     */
+    public LocalDate getPublicationDate() {
+        return this.publicationDate;
+    }
+
+    /**
+     * Set the publication date of the book.
+     *
+     * @param publicationDate The publication date of the book.
+     */
+    public void setPublicationDate(LocalDate publicationDate) {
+        this.publicationDate = publicationDate;
+    }
+
+    /**
+     * Get the cover image URL of the book.
+     *
+     * @return The image URL.
+     */
+    public String getImageUrl() {
+        return this.imageUrl;
+    }
+
+    /**
+     * Set the cover image URL of the book.
+     *
+     * @param imageUrl The image URL.
+     */
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    /**
+     * Get the price offered by the retailer.
+     *
+     * @return The price.
+     */
+    public Double getPrice() {
+        return this.price;
+    }
+
+    /**
+     * Set the price offered by the retailer.
+     *
+     * @param price The price.
+     */
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    /**
+     * Get the URL of the book page at the retailer.
+     *
+     * @return The book page URL.
+     */
+    public String getUrl() {
+        return this.url;
+    }
+
+    /**
+     * Set the URL of the book page at the retailer.
+     *
+     * @param url The book page URL.
+     */
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Get the name of the retailer.
+     *
+     * @return The retailer name.
+     */
+    public String getRetailer() {
+        return this.retailer;
+    }
+
+    /**
+     * Set the name of the retailer.
+     *
+     * @param retailer The retailer name.
+     */
+    public void setRetailer(String retailer) {
+        this.retailer = retailer;
+    }
+
+    /**
+     * Get the currency of the price.
+     *
+     * @return The ISO 4217 currency code, or null if unknown.
+     */
+    public String getCurrency() {
+        return this.currency;
+    }
+
+    /**
+     * Set the currency of the price.
+     *
+     * @param currency The ISO 4217 currency code.
+     */
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Get the ISBN of the book, if the retailer publishes it.
+     *
+     * @return The ISBN, or null if unknown.
+     */
+    public String getIsbn() {
+        return this.isbn;
+    }
+
+    /**
+     * Set the ISBN of the book.
+     *
+     * @param isbn The ISBN.
+     */
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    /**
+     * Creates the Books entity for this item.
+     *
+     * @return A new Books entity populated from this item.
+     */
+    public Books toBook() {
+        Books book = new Books();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setDescription(description);
+        book.setPublicationDate(publicationDate);
+        return book;
+    }
+
+    /**
+     * Creates the Price entity for this item.
+     *
+     * @param booksId The ID of the book the price belongs to.
+     * @return A new Price entity populated from this item.
+     */
+    public Price toPrice(Integer booksId) {
+        Price bookPrice = new Price();
+        bookPrice.setPrice(price);
+        bookPrice.setImageUrls(imageUrl);
+        bookPrice.setUrls(url);
+        bookPrice.setBooksId(booksId);
+        return bookPrice;
+    }
+
+    /**
+     * Creates the ComparePrices entity for this item.
+     *
+     * @param booksId The ID of the book the price belongs to.
+     * @return A new ComparePrices entity populated from this item.
+     */
+    public ComparePrices toComparePrice(Integer booksId) {
+        ComparePrices comparePrice = new ComparePrices();
+        comparePrice.setPrice(price);
+        comparePrice.setImageUrls(imageUrl);
+        comparePrice.setUrls(url);
+        comparePrice.setBooksId(booksId);
+        comparePrice.setRetailer(retailer);
+        return comparePrice;
+    }
+
+    /**
+     * Creates the PriceObservation entity for this item.
+     *
+     * @param booksId    The ID of the book the price belongs to.
+     * @param observedAt When the price was observed, in UTC.
+     * @return A new PriceObservation entity populated from this item.
+     */
+    public PriceObservation toPriceObservation(Integer booksId, LocalDateTime observedAt) {
+        PriceObservation observation = new PriceObservation();
+        observation.setBooksId(booksId);
+        observation.setRetailer(retailer);
+        observation.setPrice(price);
+        observation.setCurrency(currency);
+        observation.setObservedAt(observedAt);
+        return observation;
+    }
+
+    /**
+     * Returns a string representation of the ScrapedItem object.
+     *
+     * @return A string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "ScrapedItem{" +
+                "title='" + title + '\'' +
+                ", author='" + author + '\'' +
+                ", description='" + description + '\'' +
+                ", publicationDate=" + publicationDate +
+                ", imageUrl='" + imageUrl + '\'' +
+                ", price=" + price +
+                ", url='" + url + '\'' +
+                ", retailer='" + retailer + '\'' +
+                ", currency='" + currency + '\'' +
+                ", isbn='" + isbn + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookmatch.webscrapers;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * This interface measures how much memory a browser session uses, so the {@link PooledWebDriverProvider}
+ * can restart bloated sessions and stop launching new ones when the browsers use too much memory in total.
+ */
+public interface BrowserMemoryProbe {
+
+    /**
+     * Returns the resident memory of a browser session, including its child processes.
+     *
+     * @param driver The WebDriver session.
+     * @return The resident memory in bytes, or -1 if it cannot be measured.
+     */
+    long getResidentBytes(WebDriver driver);
+
+    /**
+     * Returns a probe that reads the Firefox process id from the {@code moz:processID} capability and sums
+     * the VmRSS of the process and its content processes from /proc. On systems without /proc every
+     * measurement is -1, which turns the memory limits off.
+     *
+     * @return The /proc based probe.
+     */
+    static BrowserMemoryProbe procfs() {
+        return driver -> {
+            if (!(driver instanceof HasCapabilities)) {
+                return -1;
+            }
+            Object pid = ((HasCapabilities) driver).getCapabilities().getCapability("moz:processID");
+            if (!(pid instanceof Number)) {
+                return -1;
+            }
+            Optional<ProcessHandle> browser = ProcessHandle.of(((Number) pid).longValue());
+            if (browser.isEmpty()) {
+                return -1;
+            }
+            long total = -1;
+            List<ProcessHandle> processes = Stream.concat(Stream.of(browser.get()), browser.get().descendants()).toList();
+            for (ProcessHandle process : processes) {
+                long rss = readResidentBytes(process.pid());
+                if (rss >= 0) {
+                    total = Math.max(total, 0) + rss;
+                }
+            }
+            return total;
+        };
+    }
+
+    /**
+     * Reads the VmRSS line of /proc/[pid]/status.
+     *
+     * @param pid The process id.
+     * @return The resident memory in bytes, or -1 if the process is gone or /proc is not available.
+     */
+    private static long readResidentBytes(long pid) {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        try (Stream<String> lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .findFirst()
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024) // Reported in kB
+                    .orElse(-1L);
+        } catch (IOException | RuntimeException ex) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.bookmatch.webscrapers;
+
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes which resources a headless browser session loads. The scrapers only read the DOM and the image URLs,
+ * so by default images, downloadable fonts and third-party trackers are not fetched at all. Trackers are blocked
+ * through Firefox's tracking protection plus a proxy auto-config script that sends requests for the blocked hosts
+ * to an unreachable proxy. Stylesheets and JavaScript can be switched off as well for sites that do not need them.
+ */
+public class BrowserProfile {
+
+    /** Analytics, advertising and tag manager hosts blocked by default, subdomains included. */
+    public static final List<String> DEFAULT_BLOCKED_HOSTS = List.of(
+            "google-analytics.com", "googletagmanager.com", "googlesyndication.com", "googleadservices.com",
+            "doubleclick.net", "facebook.net", "hotjar.com", "criteo.com", "criteo.net", "taboola.com",
+            "outbrain.com", "scorecardresearch.com", "quantserve.com", "adnxs.com", "amazon-adsystem.com",
+            "bat.bing.com", "clarity.ms", "analytics.tiktok.com", "ct.pinimg.com", "cdn.segment.com", "klaviyo.com");
+
+    private static final String BLACKHOLE_PROXY = "PROXY 127.0.0.1:9"; // The discard port, connections fail at once
+
+    private boolean blockImages = true;
+    private boolean blockFonts = true;
+    private boolean blockStylesheets = false;
+    private boolean trackingProtection = true;
+    private boolean javaScriptEnabled = true;
+    private List<String> blockedHosts = DEFAULT_BLOCKED_HOSTS;
+
+    /**
+     * Sets whether images are not loaded. The src attributes stay in the DOM, so image URLs are still read.
+     *
+     * @param blockImages True to block images.
+     */
+    public void setBlockImages(boolean blockImages) {
+        this.blockImages = blockImages;
+    }
+
+    /**
+     * Sets whether downloadable web fonts are not loaded.
+     *
+     * @param blockFonts True to block web fonts.
+     */
+    public void setBlockFonts(boolean blockFonts) {
+        this.blockFonts = blockFonts;
+    }
+
+    /**
+     * Sets whether stylesheets are not loaded. Elements hidden by a site's CSS then become visible,
+     * so only switch this on for retailers whose selectors were checked without styles.
+     *
+     * @param blockStylesheets True to block stylesheets.
+     */
+    public void setBlockStylesheets(boolean blockStylesheets) {
+        this.blockStylesheets = blockStylesheets;
+    }
+
+    /**
+     * Sets whether Firefox's built-in tracking protection is on.
+     *
+     * @param trackingProtection True to enable tracking protection.
+     */
+    public void setTrackingProtection(boolean trackingProtection) {
+        this.trackingProtection = trackingProtection;
+    }
+
+    /**
+     * Sets whether pages may run JavaScript.
+     *
+     * @param javaScriptEnabled False for sites whose pages are complete without scripts.
+     */
+    public void setJavaScriptEnabled(boolean javaScriptEnabled) {
+        this.javaScriptEnabled = javaScriptEnabled;
+    }
+
+    /**
+     * Sets the hosts whose requests are blocked. A host also blocks its subdomains.
+     *
+     * @param blockedHosts The blocked hosts, empty to block none.
+     */
+    public void setBlockedHosts(List<String> blockedHosts) {
+        this.blockedHosts = List.copyOf(blockedHosts);
+    }
+
+    /**
+     * Returns a copy of this profile with JavaScript switched on or off.
+     *
+     * @param javaScriptEnabled Whether the copy allows JavaScript.
+     * @return The new profile.
+     */
+    public BrowserProfile withJavaScriptEnabled(boolean javaScriptEnabled) {
+        BrowserProfile copy = new BrowserProfile();
+        copy.blockImages = blockImages;
+        copy.blockFonts = blockFonts;
+        copy.blockStylesheets = blockStylesheets;
+        copy.trackingProtection = trackingProtection;
+        copy.javaScriptEnabled = javaScriptEnabled;
+        copy.blockedHosts = blockedHosts;
+        return copy;
+    }
+
+    /**
+     * Returns the Firefox preferences that implement this profile.
+     *
+     * @return The preferences by name.
+     */
+    public Map<String, Object> getPreferences() {
+        Map<String, Object> preferences = new LinkedHashMap<>();
+        if (blockImages) {
+            preferences.put("permissions.default.image", 2);
+        }
+        if (blockFonts) {
+            preferences.put("gfx.downloadable_fonts.enabled", false);
+        }
+        if (blockStylesheets) {
+            preferences.put("permissions.default.stylesheet", 2);
+        }
+        if (trackingProtection) {
+            preferences.put("privacy.trackingprotection.enabled", true);
+        }
+        if (!javaScriptEnabled) {
+            preferences.put("javascript.enabled", false);
+        }
+        if (!blockedHosts.isEmpty()) {
+            preferences.put("network.proxy.type", 2); // Proxy auto-config
+            preferences.put("network.proxy.autoconfig_url", "data:application/x-ns-proxy-autoconfig;base64,"
+                    + Base64.getEncoder().encodeToString(getProxyAutoConfig().getBytes(StandardCharsets.UTF_8)));
+        }
+        return preferences;
+    }
+
+    /**
+     * Returns the proxy auto-config script that blocks the blocked hosts and lets everything else through.
+     *
+     * @return The PAC script.
+     */
+    public String getProxyAutoConfig() {
+        List<String> quotedHosts = new ArrayList<>();
+        for (String host : blockedHosts) {
+            quotedHosts.add("\"" + host.replace("\"", "") + "\"");
+        }
+        return "function FindProxyForURL(url, host) {\n"
+                + "  var blocked = [" + String.join(", ", quotedHosts) + "];\n"
+                + "  for (var i = 0; i < blocked.length; i++) {\n"
+                + "    if (host == blocked[i] || dnsDomainIs(host, \".\" + blocked[i])) {\n"
+                + "      return \"" + BLACKHOLE_PROXY + "\";\n"
+                + "    }\n"
+                + "  }\n"
+                + "  return \"DIRECT\";\n"
+                + "}\n";
+    }
+
+    /**
+     * Adds this profile's preferences to the options of a new Firefox session.
+     *
+     * @param options The options of the session to launch.
+     */
+    public void applyTo(FirefoxOptions options) {
+        getPreferences().forEach((name, value) -> {
+            if (value instanceof Boolean) {
+                options.addPreference(name, (Boolean) value);
+            } else if (value instanceof Integer) {
+                options.addPreference(name, (Integer) value);
+            } else {
+                options.addPreference(name, value.toString());
+            }
+        });
+    }
+}
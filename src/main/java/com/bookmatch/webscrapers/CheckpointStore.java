@@ -0,0 +1,233 @@
+package com.bookmatch.webscrapers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records how far each retailer got in the current scrape run, so a run that died with the JVM can be resumed
+ * instead of starting over. After every listing page the engine records the next page, its running counts and
+ * the URLs the page listed; when a retailer runs out of pages it is marked finished. The file is rewritten
+ * atomically after every update, so it always holds the last completed page.
+ */
+public class CheckpointStore implements AutoCloseable {
+
+    private static final String HEADER = "# retailer\tnextPage\tlistedCount\titemCount\tfinished, followed by one \"url\" line per processed URL";
+
+    private final Path file;
+    private final Map<String, Checkpoint> checkpoints = new LinkedHashMap<>();
+
+    /**
+     * Constructs a CheckpointStore backed by the given file. Call {@link #load()} to read the checkpoints of an earlier run.
+     *
+     * @param file The checkpoint file.
+     */
+    public CheckpointStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the checkpoint file. A missing or unreadable file leaves the store empty, so every retailer starts from its first page.
+     */
+    public synchronized void load() {
+        checkpoints.clear();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Checkpoint current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length == 2 && fields[0].equals("url") && current != null) {
+                    current.processedUrls.add(fields[1]);
+                } else if (fields.length == 5) {
+                    current = new Checkpoint(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                            Integer.parseInt(fields[3]), Boolean.parseBoolean(fields[4]));
+                    checkpoints.put(current.retailer, current);
+                }
+            }
+            System.out.println("Loaded checkpoints for " + checkpoints.size() + " retailers from " + file);
+        } catch (NoSuchFileException ex) {
+            System.out.println("No checkpoint at " + file);
+        } catch (IOException | RuntimeException ex) {
+            System.out.println("Unable to read checkpoints from " + file + ", starting from the first pages");
+            ex.printStackTrace();
+            checkpoints.clear();
+        }
+    }
+
+    /**
+     * Returns the checkpoint of a retailer.
+     *
+     * @param retailer The retailer name.
+     * @return The checkpoint, or null if the retailer has not completed a page in this run.
+     */
+    public synchronized Checkpoint get(String retailer) {
+        return checkpoints.get(retailer);
+    }
+
+    /**
+     * Records a completed listing page and saves the file.
+     *
+     * @param retailer    The retailer name.
+     * @param nextPage    The listing page to continue from.
+     * @param listedCount The number of listing entries processed so far.
+     * @param itemCount   The number of books scraped so far.
+     * @param pageUrls    The URLs the completed page listed.
+     */
+    public synchronized void recordPage(String retailer, int nextPage, int listedCount, int itemCount, Collection<String> pageUrls) {
+        Checkpoint previous = checkpoints.get(retailer);
+        Checkpoint checkpoint = new Checkpoint(retailer, nextPage, listedCount, itemCount, false);
+        if (previous != null) {
+            checkpoint.processedUrls.addAll(previous.processedUrls);
+        }
+        checkpoint.processedUrls.addAll(pageUrls);
+        checkpoints.put(retailer, checkpoint);
+        save();
+    }
+
+    /**
+     * Marks a retailer as finished and saves the file. A resumed run does not scrape it again.
+     *
+     * @param retailer  The retailer name.
+     * @param itemCount The number of books scraped in the run.
+     */
+    public synchronized void recordFinished(String retailer, int itemCount) {
+        Checkpoint previous = checkpoints.get(retailer);
+        // The processed URLs are only needed while the retailer is still being scraped
+        checkpoints.put(retailer, new Checkpoint(retailer, previous != null ? previous.nextPage : 0,
+                previous != null ? previous.listedCount : 0, itemCount, true));
+        save();
+    }
+
+    /**
+     * Forgets every checkpoint and saves the empty file, so the next run starts from the first pages.
+     */
+    public synchronized void clear() {
+        checkpoints.clear();
+        save();
+    }
+
+    /**
+     * Writes the checkpoint file. The file is replaced atomically, so a crash never leaves it half written.
+     */
+    public synchronized void save() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Checkpoint checkpoint : checkpoints.values()) {
+                    writer.write(checkpoint.retailer + "\t" + checkpoint.nextPage + "\t" + checkpoint.listedCount + "\t"
+                            + checkpoint.itemCount + "\t" + checkpoint.finished);
+                    writer.newLine();
+                    for (String url : checkpoint.processedUrls) {
+                        writer.write("url\t" + url);
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            System.out.println("Unable to save checkpoints to " + file);
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Saves the checkpoint file.
+     */
+    @Override
+    public void close() {
+        save();
+    }
+
+    /**
+     * How far one retailer got: the page to continue from, the running counts and the URLs already processed.
+     */
+    public static class Checkpoint {
+
+        private final String retailer;
+        private final int nextPage;
+        private final int listedCount;
+        private final int itemCount;
+        private final boolean finished;
+        private final Set<String> processedUrls = new LinkedHashSet<>();
+
+        private Checkpoint(String retailer, int nextPage, int listedCount, int itemCount, boolean finished) {
+            this.retailer = retailer;
+            this.nextPage = nextPage;
+            this.listedCount = listedCount;
+            this.itemCount = itemCount;
+            this.finished = finished;
+        }
+
+        /**
+         * Returns the retailer name.
+         *
+         * @return The retailer name.
+         */
+        public String getRetailer() {
+            return retailer;
+        }
+
+        /**
+         * Returns the listing page to continue from.
+         *
+         * @return The next listing page.
+         */
+        public int getNextPage() {
+            return nextPage;
+        }
+
+        /**
+         * Returns the number of listing entries processed before the checkpoint.
+         *
+         * @return The listed count.
+         */
+        public int getListedCount() {
+            return listedCount;
+        }
+
+        /**
+         * Returns the number of books scraped before the checkpoint.
+         *
+         * @return The item count.
+         */
+        public int getItemCount() {
+            return itemCount;
+        }
+
+        /**
+         * Returns whether the retailer ran out of pages.
+         *
+         * @return True if the retailer is finished.
+         */
+        public boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * Returns the URLs listed on the completed pages, which are skipped if they reappear on a later page.
+         *
+         * @return The processed URLs.
+         */
+        public Set<String> getProcessedUrls() {
+            return Collections.unmodifiableSet(processedUrls);
+        }
+    }
+}
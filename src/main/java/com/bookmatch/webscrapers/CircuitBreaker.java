@@ -0,0 +1,153 @@
+package com.bookmatch.webscrapers;
+
+import java.time.Duration;
+
+/**
+ * Stops sending requests to a retailer that keeps failing. After a number of consecutive failures the breaker
+ * opens and the retailer is paused; once the pause is over a single trial request is let through. A successful
+ * trial closes the breaker, a failed one opens it again for twice as long. A retailer whose trials keep failing
+ * is given up on: the breaker reports itself exhausted.
+ */
+public class CircuitBreaker {
+
+    /** Default number of consecutive failures that opens the breaker. */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /** Default pause after the breaker first opens. */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /** Default number of failed trials in a row before the retailer is given up on. */
+    public static final int DEFAULT_MAX_TRIPS = 3;
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        /** Requests flow normally. */
+        CLOSED,
+        /** The retailer is paused. */
+        OPEN,
+        /** A single trial request decides whether the retailer is back. */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int maxTrips;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int trips; // Times the breaker opened since it was last closed by a successful trial
+    private long openUntil; // System.nanoTime at which the pause ends
+    private boolean trialInFlight;
+
+    /**
+     * Constructs a CircuitBreaker with the default settings.
+     *
+     * @param name The retailer name used in log messages.
+     */
+    public CircuitBreaker(String name) {
+        this(name, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, DEFAULT_MAX_TRIPS);
+    }
+
+    /**
+     * Constructs a CircuitBreaker.
+     *
+     * @param name             The retailer name used in log messages.
+     * @param failureThreshold The number of consecutive failures that opens the breaker.
+     * @param openDuration     The pause after the breaker first opens, doubled on every failed trial.
+     * @param maxTrips         The number of times the breaker may open in a row before it is exhausted.
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, int maxTrips) {
+        if (failureThreshold < 1 || maxTrips < 1) {
+            throw new IllegalArgumentException("Failure threshold and maximum trips must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.maxTrips = maxTrips;
+    }
+
+    /**
+     * Asks whether a request may be sent now. While the breaker is open nothing is let through;
+     * once the pause is over exactly one caller gets to send the trial request.
+     *
+     * @return True if the request may be sent.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (isExhausted() || System.nanoTime() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                System.out.println(name + " circuit half open, sending a trial request");
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Records a successful request, closing the breaker.
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            System.out.println(name + " circuit closed, resuming");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trips = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a failed request. The breaker opens once the failure threshold is reached, or at once if a trial failed.
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            trips++;
+            trialInFlight = false;
+            state = State.OPEN;
+            Duration pause = openDuration.multipliedBy(1L << Math.min(trips - 1, 20));
+            openUntil = System.nanoTime() + pause.toNanos();
+            System.out.println(name + " circuit open after " + consecutiveFailures + " consecutive failures"
+                    + (isExhausted() ? ", giving up" : ", pausing for " + pause.toSeconds() + "s"));
+        }
+    }
+
+    /**
+     * Returns how long the breaker stays open.
+     *
+     * @return The remaining pause, zero if requests may be tried now.
+     */
+    public synchronized Duration getRemainingPause() {
+        return state == State.OPEN ? Duration.ofNanos(Math.max(0, openUntil - System.nanoTime())) : Duration.ZERO;
+    }
+
+    /**
+     * Returns whether the breaker opened too many times in a row and the retailer should be given up on.
+     *
+     * @return True if the breaker is exhausted.
+     */
+    public synchronized boolean isExhausted() {
+        return trips >= maxTrips;
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     *
+     * @return The breaker state.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+}
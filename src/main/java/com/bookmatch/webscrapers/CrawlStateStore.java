@@ -0,0 +1,294 @@
+package com.bookmatch.webscrapers;
+
+import com.bookmatch.BookIdentityCache;
+import com.bookmatch.models.ScrapedItem;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers what each book page looked like when it was last fetched, so an incremental crawl only
+ * revisits pages that are likely to have changed. For every URL it keeps the fetch time, the HTTP validators
+ * for conditional requests, a hash of the extracted content, the last price and the listing position.
+ * The state is kept in memory and written to a tab separated file, one URL per line.
+ */
+public class CrawlStateStore implements AutoCloseable {
+
+    /** Default time after which a page is revisited even if its listing entry looks unchanged. */
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofDays(7);
+
+    private static final String HEADER = "# url\tlastFetched\tetag\tlastModified\tcontentHash\tlastPrice\tposition";
+
+    private final Path file;
+    private final Map<String, CrawlState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a CrawlStateStore backed by the given file. Call {@link #load()} to read earlier state.
+     *
+     * @param file The state file.
+     */
+    public CrawlStateStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the state file. A missing or unreadable file leaves the store empty, which makes the next crawl a full one.
+     */
+    public void load() {
+        states.clear();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 7) {
+                    continue; // Skip lines written by a different version
+                }
+                states.put(fields[0], new CrawlState(
+                        Instant.ofEpochMilli(Long.parseLong(fields[1])),
+                        emptyToNull(fields[2]),
+                        emptyToNull(fields[3]),
+                        Long.parseLong(fields[4]),
+                        fields[5].isEmpty() ? null : Double.valueOf(fields[5]),
+                        Integer.parseInt(fields[6])));
+            }
+            System.out.println("Loaded crawl state for " + states.size() + " pages from " + file);
+        } catch (NoSuchFileException ex) {
+            System.out.println("No crawl state at " + file + ", starting a full crawl");
+        } catch (IOException | RuntimeException ex) {
+            System.out.println("Unable to read crawl state from " + file + ", starting a full crawl");
+            ex.printStackTrace();
+            states.clear();
+        }
+    }
+
+    /**
+     * Writes the state file. The file is replaced atomically, so a crash never leaves it half written.
+     */
+    public synchronized void save() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<String, CrawlState> entry : states.entrySet()) {
+                    CrawlState state = entry.getValue();
+                    writer.write(entry.getKey() + "\t" + state.getLastFetched().toEpochMilli() + "\t" + nullToEmpty(state.getEtag())
+                            + "\t" + nullToEmpty(state.getLastModified()) + "\t" + state.getContentHash()
+                            + "\t" + (state.getLastPrice() != null ? state.getLastPrice() : "") + "\t" + state.getPosition());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            System.out.println("Unable to save crawl state to " + file);
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the state recorded for a book page.
+     *
+     * @param url The URL of the book page.
+     * @return The state, or null if the page has never been fetched.
+     */
+    public CrawlState get(String url) {
+        return states.get(url);
+    }
+
+    /**
+     * Returns whether a book page should be fetched again: it is new, its refresh interval has elapsed,
+     * or its listing entry moved or shows a different price than the last fetch recorded.
+     *
+     * @param entry           The book's listing entry.
+     * @param refreshInterval The time after which a page is fetched regardless of its listing entry.
+     * @return True if the page is due for a visit.
+     */
+    public boolean isDue(ListingEntry entry, Duration refreshInterval) {
+        CrawlState state = states.get(entry.getUrl());
+        if (state == null) {
+            return true;
+        }
+        if (!state.getLastFetched().plus(refreshInterval).isAfter(Instant.now())) {
+            return true;
+        }
+        if (entry.getPrice() != null && !entry.getPrice().equals(state.getLastPrice())) {
+            return true;
+        }
+        return entry.getPosition() != state.getPosition();
+    }
+
+    /**
+     * Records a successful fetch of a book page.
+     *
+     * @param entry        The book's listing entry.
+     * @param item         The book extracted from the page.
+     * @param etag         The ETag of the response, or null.
+     * @param lastModified The Last-Modified date of the response, or null.
+     * @return True if the extracted content differs from the previous fetch.
+     */
+    public boolean recordFetch(ListingEntry entry, ScrapedItem item, String etag, String lastModified) {
+        long contentHash = contentHash(item);
+        CrawlState previous = states.put(entry.getUrl(),
+                new CrawlState(Instant.now(), etag, lastModified, contentHash, item.getPrice(), entry.getPosition()));
+        return previous == null || previous.getContentHash() != contentHash;
+    }
+
+    /**
+     * Records that a conditional request found a book page unchanged, restarting its refresh interval.
+     *
+     * @param entry The book's listing entry.
+     */
+    public void recordNotModified(ListingEntry entry) {
+        states.computeIfPresent(entry.getUrl(), (url, state) -> new CrawlState(Instant.now(), state.getEtag(),
+                state.getLastModified(), state.getContentHash(), state.getLastPrice(), entry.getPosition()));
+    }
+
+    /**
+     * Records the price and position of a known book read from its listing card, without a page fetch.
+     * The time of the last fetch is kept, so an incremental run revisits the book page once its refresh interval
+     * has elapsed; price refresh runs take the listing price for known books and never revisit their pages.
+     *
+     * @param entry The book's listing entry.
+     */
+    public void recordListingPrice(ListingEntry entry) {
+        states.computeIfPresent(entry.getUrl(), (url, state) -> new CrawlState(state.getLastFetched(), state.getEtag(),
+                state.getLastModified(), state.getContentHash(), entry.getPrice(), entry.getPosition()));
+    }
+
+    /**
+     * Returns the number of pages with recorded state.
+     *
+     * @return The number of pages.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * Saves the state file.
+     */
+    @Override
+    public void close() {
+        save();
+    }
+
+    /**
+     * Computes a hash of the details extracted from a book page.
+     *
+     * @param item The extracted book.
+     * @return The content hash.
+     */
+    public static long contentHash(ScrapedItem item) {
+        return 31 * BookIdentityCache.bookFingerprint(item.getTitle(), item.getAuthor(), item.getDescription(), item.getPublicationDate())
+                + BookIdentityCache.priceFingerprint(item.getTitle(), item.getAuthor(), item.getPrice(), item.getImageUrl(), item.getRetailer());
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value.replace('\t', ' ') : "";
+    }
+
+    /**
+     * The state of one book page as of its last fetch.
+     */
+    public static class CrawlState {
+
+        private final Instant lastFetched;
+        private final String etag;
+        private final String lastModified;
+        private final long contentHash;
+        private final Double lastPrice;
+        private final int position;
+
+        /**
+         * Constructs a CrawlState.
+         *
+         * @param lastFetched  When the page was last fetched.
+         * @param etag         The ETag of the last response, or null.
+         * @param lastModified The Last-Modified date of the last response, or null.
+         * @param contentHash  The hash of the extracted content.
+         * @param lastPrice    The last price seen, or null.
+         * @param position     The listing position at the last fetch.
+         */
+        public CrawlState(Instant lastFetched, String etag, String lastModified, long contentHash, Double lastPrice, int position) {
+            this.lastFetched = lastFetched;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+            this.lastPrice = lastPrice;
+            this.position = position;
+        }
+
+        /**
+         * Returns when the page was last fetched.
+         *
+         * @return The last fetch time.
+         */
+        public Instant getLastFetched() {
+            return lastFetched;
+        }
+
+        /**
+         * Returns the ETag of the last response.
+         *
+         * @return The ETag, or null.
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Returns the Last-Modified date of the last response.
+         *
+         * @return The Last-Modified header, or null.
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the hash of the content extracted at the last fetch.
+         *
+         * @return The content hash.
+         */
+        public long getContentHash() {
+            return contentHash;
+        }
+
+        /**
+         * Returns the last price seen for the book.
+         *
+         * @return The last price, or null.
+         */
+        public Double getLastPrice() {
+            return lastPrice;
+        }
+
+        /**
+         * Returns the listing position at the last fetch.
+         *
+         * @return The listing position.
+         */
+        public int getPosition() {
+            return position;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.bookmatch.webscrapers;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fans out the book pages of a listing page to a small pool of worker threads, so a single retailer
+ * can fetch several detail pages at once. Every fetch also takes a permit for the page's host,
+ * shared by all executors, which caps how many requests hit one site concurrently.
+ * A parallelism of 1 runs the fetches on the calling thread, one after another.
+ * In virtual thread mode every fetch gets its own virtual thread and the per-host permits,
+ * together with the browser pool's own limit, are the only bound on concurrency.
+ */
+public class DetailPageExecutor implements AutoCloseable {
+
+    /** Default maximum number of concurrent fetches per host across all scrapers. */
+    public static final int DEFAULT_MAX_PER_HOST = 4;
+
+    private static final Map<String, Semaphore> HOST_PERMITS = new ConcurrentHashMap<>();
+
+    private final int maxPerHost;
+    private final ExecutorService workers; // Null when fetching on the calling thread
+
+    /**
+     * Constructs an executor with the default per-host cap.
+     *
+     * @param parallelism Number of detail pages fetched at once.
+     */
+    public DetailPageExecutor(int parallelism) {
+        this(parallelism, DEFAULT_MAX_PER_HOST);
+    }
+
+    /**
+     * Constructs an executor.
+     *
+     * @param parallelism Number of detail pages fetched at once.
+     * @param maxPerHost  Maximum number of concurrent fetches per host; the first executor to use a host sets its cap.
+     */
+    public DetailPageExecutor(int parallelism, int maxPerHost) {
+        this(parallelism, maxPerHost, false);
+    }
+
+    /**
+     * Constructs an executor, optionally running one virtual thread per fetch.
+     *
+     * @param parallelism    Number of detail pages fetched at once on platform threads; ignored for virtual threads.
+     * @param maxPerHost     Maximum number of concurrent fetches per host; the first executor to use a host sets its cap.
+     * @param virtualThreads Whether to start a virtual thread for every fetch instead of using a fixed pool.
+     */
+    public DetailPageExecutor(int parallelism, int maxPerHost, boolean virtualThreads) {
+        if (parallelism < 1 || maxPerHost < 1) {
+            throw new IllegalArgumentException("Parallelism and per-host cap must be positive");
+        }
+        this.maxPerHost = maxPerHost;
+        if (virtualThreads) {
+            this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("detail-vthread-", 1).factory());
+        } else if (parallelism > 1) {
+            AtomicInteger workerCount = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(parallelism, task -> {
+                Thread worker = new Thread(task, "detail-worker-" + workerCount.incrementAndGet());
+                worker.setDaemon(true);
+                return worker;
+            });
+        } else {
+            this.workers = null;
+        }
+    }
+
+    /**
+     * Fetches every URL with the given task and collects the results in URL order.
+     * Tasks that fail or return {@code null} are left out. If the calling thread is interrupted,
+     * the remaining fetches are cancelled and the results collected so far are returned.
+     *
+     * @param urls The detail page URLs.
+     * @param task Fetches and extracts one page, returning {@code null} if the page could not be read.
+     * @param <T>  The type of the extracted result.
+     * @return The extracted results.
+     */
+    public <T> List<T> fetchAll(List<String> urls, Function<String, T> task) {
+        List<T> results = new ArrayList<>();
+        if (workers == null) {
+            for (String url : urls) {
+                try {
+                    T result = runLimited(url, task);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<>();
+        for (String url : urls) {
+            futures.add(workers.submit(() -> runLimited(url, task)));
+        }
+        for (Future<T> future : futures) {
+            try {
+                T result = future.get();
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (ExecutionException ex) {
+                System.out.println("Detail page fetch failed");
+                ex.getCause().printStackTrace();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the task while holding a permit for the URL's host.
+     */
+    private <T> T runLimited(String url, Function<String, T> task) throws InterruptedException {
+        Semaphore permits = HOST_PERMITS.computeIfAbsent(host(url), host -> new Semaphore(maxPerHost, true));
+        permits.acquire();
+        try {
+            return task.apply(url);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : url;
+        } catch (IllegalArgumentException ex) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.bookmatch.webscrapers;
+
+import com.bookmatch.webscrapers.RetailerAdapter.Field;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads several elements of a rendered page in a single {@code executeScript} call instead of one WebDriver
+ * round-trip per element: the fields of a book page, or the cards of a listing page. The adapters' {@link By}
+ * locators are translated into lookups the page can run itself; text is read as {@code innerText} and attributes
+ * prefer the element property, like {@code WebElement.getText()} and {@code WebElement.getAttribute(String)}.
+ * Locators without a script equivalent, such as link text, make the caller fall back to WebDriver lookups.
+ */
+public final class DomScript {
+
+    /** Finds the first element matching a translated locator below a root node. */
+    private static final String FIND_FUNCTION = ""
+            + "function find(root, type, value) {\n"
+            + "  switch (type) {\n"
+            + "    case 'css': return root.querySelector(value);\n"
+            + "    case 'xpath': return document.evaluate(value, root, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n"
+            + "    case 'id': return root.querySelector('[id=\"' + CSS.escape(value) + '\"]');\n"
+            + "    case 'name': return root.querySelector('[name=\"' + CSS.escape(value) + '\"]');\n"
+            + "    case 'class': return root.getElementsByClassName(value)[0] || null;\n"
+            + "    case 'tag': return root.getElementsByTagName(value)[0] || null;\n"
+            + "  }\n"
+            + "  return null;\n"
+            + "}\n"
+            + "function findAll(root, type, value) {\n"
+            + "  switch (type) {\n"
+            + "    case 'css': return Array.from(root.querySelectorAll(value));\n"
+            + "    case 'xpath':\n"
+            + "      var snapshot = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), nodes = [];\n"
+            + "      for (var i = 0; i < snapshot.snapshotLength; i++) nodes.push(snapshot.snapshotItem(i));\n"
+            + "      return nodes;\n"
+            + "    case 'id': return Array.from(root.querySelectorAll('[id=\"' + CSS.escape(value) + '\"]'));\n"
+            + "    case 'name': return Array.from(root.querySelectorAll('[name=\"' + CSS.escape(value) + '\"]'));\n"
+            + "    case 'class': return Array.from(root.getElementsByClassName(value));\n"
+            + "    case 'tag': return Array.from(root.getElementsByTagName(value));\n"
+            + "  }\n"
+            + "  return [];\n"
+            + "}\n"
+            + "function read(element, attribute) {\n"
+            + "  if (!element) return null;\n"
+            + "  if (!attribute) return element.innerText;\n"
+            + "  var property = element[attribute];\n"
+            + "  return typeof property === 'string' ? property : element.getAttribute(attribute);\n"
+            + "}\n";
+
+    /** Reads every [key, type, value, attribute] spec of arguments[0] from the document. */
+    private static final String READ_FIELDS_SCRIPT = FIND_FUNCTION
+            + "var specs = arguments[0], result = {};\n"
+            + "for (var i = 0; i < specs.length; i++) {\n"
+            + "  try {\n"
+            + "    result[specs[i][0]] = read(find(document, specs[i][1], specs[i][2]), specs[i][3]);\n"
+            + "  } catch (e) {\n"
+            + "    result[specs[i][0]] = null;\n"
+            + "  }\n"
+            + "}\n"
+            + "return result;";
+
+    /**
+     * Reads every listing card of arguments[0] with its link spec arguments[1] (null when the card is the link)
+     * and price spec arguments[2] (null when cards show no price) as [href, price text, link text] rows.
+     */
+    private static final String READ_CARDS_SCRIPT = FIND_FUNCTION
+            + "var cardSpec = arguments[0], linkSpec = arguments[1], priceSpec = arguments[2], rows = [];\n"
+            + "var cards = findAll(document, cardSpec[0], cardSpec[1]);\n"
+            + "for (var i = 0; i < cards.length; i++) {\n"
+            + "  var link = null, price = null;\n"
+            + "  try {\n"
+            + "    link = linkSpec ? find(cards[i], linkSpec[0], linkSpec[1]) : cards[i];\n"
+            + "    price = priceSpec ? read(find(cards[i], priceSpec[0], priceSpec[1]), null) : null;\n"
+            + "  } catch (e) {\n"
+            + "  }\n"
+            + "  rows.push([read(link, 'href'), price, link ? link.innerText : null]);\n"
+            + "}\n"
+            + "return rows;";
+
+    private DomScript() {
+    }
+
+    /**
+     * Reads the link, listing price and link text of every card on a listing page in one script call.
+     *
+     * @param driver  The WebDriver showing the listing page.
+     * @param adapter The retailer whose listing, link and price selectors are read.
+     * @return One row per card in page order, holding the link URL, price text and link text, each null if missing;
+     * or null if the driver cannot run scripts or a selector has no script equivalent.
+     */
+    public static List<String[]> readCards(WebDriver driver, RetailerAdapter adapter) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        String[] cardLocator = toLocator(adapter.getListingSelector());
+        String[] linkLocator = adapter.getBookLinkSelector() != null ? toLocator(adapter.getBookLinkSelector()) : null;
+        String[] priceLocator = adapter.getListingPriceSelector() != null ? toLocator(adapter.getListingPriceSelector()) : null;
+        if (cardLocator == null || (adapter.getBookLinkSelector() != null && linkLocator == null)
+                || (adapter.getListingPriceSelector() != null && priceLocator == null)) {
+            return null;
+        }
+
+        Object result = ((JavascriptExecutor) driver).executeScript(READ_CARDS_SCRIPT, Arrays.asList(cardLocator),
+                linkLocator != null ? Arrays.asList(linkLocator) : null, priceLocator != null ? Arrays.asList(priceLocator) : null);
+        if (!(result instanceof List)) {
+            return null;
+        }
+        List<String[]> cards = new ArrayList<>();
+        for (Object row : (List<?>) result) {
+            List<?> values = (List<?>) row;
+            String[] card = new String[3];
+            for (int i = 0; i < card.length; i++) {
+                card[i] = values.get(i) != null ? values.get(i).toString() : null;
+            }
+            cards.add(card);
+        }
+        return cards;
+    }
+
+    /**
+     * Reads the given fields of a retailer's book page in one script call.
+     *
+     * @param driver  The WebDriver showing the book page.
+     * @param adapter The retailer whose selectors and attributes are read.
+     * @param fields  The fields to read; fields without a selector are left out of the result.
+     * @return The text or attribute value of every field, null for fields whose element is missing,
+     * or null overall if the driver cannot run scripts or a selector has no script equivalent.
+     */
+    public static Map<Field, String> readFields(WebDriver driver, RetailerAdapter adapter, List<Field> fields) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        List<List<String>> specs = new ArrayList<>();
+        for (Field field : fields) {
+            By selector = adapter.getSelector(field);
+            if (selector == null) {
+                continue;
+            }
+            String[] locator = toLocator(selector);
+            if (locator == null) {
+                return null;
+            }
+            String attribute = adapter.getAttribute(field);
+            specs.add(Arrays.asList(field.name(), locator[0], locator[1], attribute != null ? attribute : ""));
+        }
+
+        Object result = ((JavascriptExecutor) driver).executeScript(READ_FIELDS_SCRIPT, specs);
+        if (!(result instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> values = (Map<?, ?>) result;
+        Map<Field, String> fieldValues = new EnumMap<>(Field.class);
+        for (List<String> spec : specs) {
+            Object value = values.get(spec.get(0));
+            fieldValues.put(Field.valueOf(spec.get(0)), value != null ? value.toString() : null);
+        }
+        return fieldValues;
+    }
+
+    /**
+     * Translates a locator into the lookup type and value the page script understands.
+     * Relies on the {@code By.<type>: <value>} form of Selenium's locator descriptions.
+     *
+     * @param by The locator.
+     * @return The lookup type and value, or null if the locator has no script equivalent.
+     */
+    static String[] toLocator(By by) {
+        String description = by.toString();
+        int colon = description.indexOf(": ");
+        if (colon < 0) {
+            return null;
+        }
+        String value = description.substring(colon + 2);
+        switch (description.substring(0, colon)) {
+            case "By.cssSelector":
+                return new String[]{"css", value};
+            case "By.xpath":
+                return new String[]{"xpath", value};
+            case "By.id":
+                return new String[]{"id", value};
+            case "By.name":
+                return new String[]{"name", value};
+            case "By.className":
+                return new String[]{"class", value};
+            case "By.tagName":
+                return new String[]{"tag", value};
+            default:
+                return null;
+        }
+    }
+}
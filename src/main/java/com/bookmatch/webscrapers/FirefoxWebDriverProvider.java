@@ -7,13 +7,25 @@ import org.springframework.stereotype.Component;
 
 /**
  * The {@code FirefoxWebDriverProvider} class implements {@link WebDriverProvider}
- * to provide instances of a headless Firefox WebDriver.
+ * to provide instances of a headless Firefox WebDriver. Every session is launched with the
+ * resource blocking preferences of its {@link BrowserProfile}.
  * It is annotated with {@link Component} to indicate that it is a Spring component
  * and can be automatically discovered and registered by the Spring container.
  */
 @Component
 public class FirefoxWebDriverProvider implements WebDriverProvider {
 
+    private BrowserProfile browserProfile = new BrowserProfile(); // Resources the sessions do not load
+
+    /**
+     * Sets the profile applied to every new session.
+     *
+     * @param browserProfile The BrowserProfile instance.
+     */
+    public void setBrowserProfile(BrowserProfile browserProfile) {
+        this.browserProfile = browserProfile;
+    }
+
     /**
      * Provides a configured instance of a headless Firefox WebDriver.
      *
@@ -28,6 +40,9 @@ public class FirefoxWebDriverProvider implements WebDriverProvider {
         FirefoxOptions options = new FirefoxOptions();
         options.setHeadless(true);
 
+        // Skip images, fonts and trackers the scrapers never read
+        browserProfile.applyTo(options);
+
         // Create a new instance of the Firefox driver with configured options
         return new FirefoxDriver(options);
     }
@@ -0,0 +1,294 @@
+package com.bookmatch.webscrapers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out the requests sent to each retailer host with a token bucket per host, shared by every scraper,
+ * browser session and static fetch. Each bucket starts at the configured rate and adapts to how the host responds:
+ * a 429 or 503 halves the rate and pauses the host for its Retry-After time, a slow response lowers the rate
+ * a little, and every normal response raises it slowly back towards the ceiling. A Crawl-delay in the host's
+ * robots.txt caps the ceiling and turns off bursts for that host.
+ */
+public class HostRateLimiter {
+
+    /** Default number of requests per second sent to one host. */
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 2.0;
+
+    /** Default number of requests one host may receive back to back after an idle period. */
+    public static final int DEFAULT_BURST = 4;
+
+    /** Default response time above which a host is considered to be struggling. */
+    public static final Duration DEFAULT_SLOW_RESPONSE = Duration.ofSeconds(8);
+
+    private static final double MIN_REQUESTS_PER_SECOND = 0.05; // Floor of the adaptive rate, one request every 20 s
+    private static final double THROTTLED_FACTOR = 0.5; // Rate multiplier after a 429 or 503
+    private static final double SLOW_FACTOR = 0.8; // Rate multiplier after a slow response
+    private static final double RECOVERY_STEP = 0.05; // Requests per second regained after each normal response
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final Map<String, HostBucket> buckets = new ConcurrentHashMap<>();
+    private Duration slowResponse = DEFAULT_SLOW_RESPONSE;
+    private StaticPageProvider robotsProvider; // Optional fetcher for robots.txt, null to ignore crawl delays
+
+    /**
+     * Constructs a HostRateLimiter with the default rate and burst.
+     */
+    public HostRateLimiter() {
+        this(DEFAULT_REQUESTS_PER_SECOND, DEFAULT_BURST);
+    }
+
+    /**
+     * Constructs a HostRateLimiter.
+     *
+     * @param requestsPerSecond The highest rate at which requests are sent to one host.
+     * @param burst             The number of requests one host may receive back to back after an idle period.
+     */
+    public HostRateLimiter(double requestsPerSecond, int burst) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * Sets the response time above which a host is considered to be struggling and its rate is lowered.
+     *
+     * @param slowResponse The slow response threshold.
+     */
+    public void setSlowResponse(Duration slowResponse) {
+        this.slowResponse = slowResponse;
+    }
+
+    /**
+     * Sets the provider used to read each host's robots.txt the first time the host is contacted.
+     * The robots.txt request itself goes through this limiter.
+     *
+     * @param robotsProvider The StaticPageProvider instance, or null to ignore crawl delays.
+     */
+    public void setRobotsProvider(StaticPageProvider robotsProvider) {
+        this.robotsProvider = robotsProvider;
+    }
+
+    /**
+     * Blocks until a request to the URL's host is allowed.
+     *
+     * @param url The URL about to be requested.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void acquire(String url) throws InterruptedException {
+        HostBucket bucket = bucket(url);
+        if (robotsProvider != null && bucket.claimRobotsCheck()) {
+            loadCrawlDelay(url, bucket);
+        }
+        long waitNanos = bucket.reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Records a normal response, lowering the host's rate if it was slow and raising it otherwise.
+     *
+     * @param url     The requested URL.
+     * @param latency The time the response took.
+     */
+    public void recordResponse(String url, Duration latency) {
+        HostBucket bucket = bucket(url);
+        if (latency.compareTo(slowResponse) > 0) {
+            double rate = bucket.slowDown(SLOW_FACTOR);
+            System.out.println("Slow response from " + bucket.host + " (" + latency.toMillis() + " ms), rate lowered to "
+                    + String.format(Locale.ROOT, "%.2f", rate) + " requests/s");
+        } else {
+            bucket.recover(RECOVERY_STEP);
+        }
+    }
+
+    /**
+     * Records a 429 Too Many Requests or 503 Service Unavailable response. The host's rate is halved and
+     * no request is sent to it until the Retry-After time has passed.
+     *
+     * @param url        The requested URL.
+     * @param retryAfter The time the host asked to wait, or null to wait one request interval at the new rate.
+     */
+    public void recordThrottled(String url, Duration retryAfter) {
+        HostBucket bucket = bucket(url);
+        double rate = bucket.slowDown(THROTTLED_FACTOR);
+        Duration pause = retryAfter != null ? retryAfter : Duration.ofMillis((long) (1000 / rate));
+        bucket.pause(System.nanoTime() + pause.toNanos());
+        System.out.println("Throttled by " + bucket.host + ", pausing " + pause.toMillis() + " ms and lowering the rate to "
+                + String.format(Locale.ROOT, "%.2f", rate) + " requests/s");
+    }
+
+    /**
+     * Caps a host's rate at one request per crawl delay and turns off bursts for it.
+     *
+     * @param url        A URL on the host.
+     * @param crawlDelay The minimum time between two requests.
+     */
+    public void setCrawlDelay(String url, Duration crawlDelay) {
+        HostBucket bucket = bucket(url);
+        bucket.limit(1e9 / Math.max(crawlDelay.toNanos(), 1));
+        System.out.println("Honouring a crawl delay of " + crawlDelay.toMillis() + " ms for " + bucket.host);
+    }
+
+    /**
+     * Returns the current rate of the URL's host.
+     *
+     * @param url A URL on the host.
+     * @return The requests per second currently allowed.
+     */
+    public double getRate(String url) {
+        return bucket(url).getRate();
+    }
+
+    /**
+     * Reads the Crawl-delay that applies to all user agents from a robots.txt file.
+     *
+     * @param robotsTxt The contents of the robots.txt file.
+     * @return The crawl delay, or null if the file sets none.
+     */
+    public static Duration parseCrawlDelay(String robotsTxt) {
+        boolean applies = false; // Whether the current group is addressed to all user agents
+        boolean inUserAgents = false; // Whether the previous line was a User-agent line
+        for (String line : robotsTxt.split("\\R")) {
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String key = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (key.equals("user-agent")) {
+                if (!inUserAgents) {
+                    applies = false; // A new group starts
+                }
+                inUserAgents = true;
+                applies |= value.equals("*");
+                continue;
+            }
+            inUserAgents = false;
+            if (applies && key.equals("crawl-delay")) {
+                try {
+                    return Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+                } catch (NumberFormatException ex) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void loadCrawlDelay(String url, HostBucket bucket) {
+        String robotsUrl;
+        try {
+            URI uri = URI.create(url);
+            robotsUrl = uri.getScheme() + "://" + uri.getRawAuthority() + "/robots.txt";
+        } catch (IllegalArgumentException ex) {
+            return;
+        }
+        try {
+            Duration crawlDelay = parseCrawlDelay(robotsProvider.getPageSource(robotsUrl));
+            if (crawlDelay != null && !crawlDelay.isZero()) {
+                setCrawlDelay(url, crawlDelay);
+            }
+        } catch (Exception ex) {
+            System.out.println("No robots.txt read for " + bucket.host + ", using the default rate");
+        }
+    }
+
+    private HostBucket bucket(String url) {
+        String host = host(url);
+        return buckets.computeIfAbsent(host, key -> new HostBucket(key, requestsPerSecond, burst));
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : url;
+        } catch (IllegalArgumentException ex) {
+            return url;
+        }
+    }
+
+    /**
+     * The token bucket of one host. A request reserves a token up front, letting the balance go negative,
+     * so concurrent callers queue up one interval apart instead of all waking at once.
+     */
+    private static class HostBucket {
+
+        private final String host;
+        private double ceiling; // Highest rate, lowered by a crawl delay
+        private double rate; // Current adaptive rate
+        private int capacity; // Maximum number of stored tokens
+        private double tokens;
+        private long refilledAt;
+        private long pausedUntil; // Nothing is sent before this time, 0 when not paused
+        private boolean robotsChecked;
+
+        private HostBucket(String host, double rate, int capacity) {
+            this.host = host;
+            this.ceiling = rate;
+            this.rate = rate;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        private synchronized boolean claimRobotsCheck() {
+            if (robotsChecked) {
+                return false;
+            }
+            robotsChecked = true;
+            return true;
+        }
+
+        private synchronized long reserve(long now) {
+            refill(now);
+            tokens -= 1;
+            long waitNanos = tokens >= 0 ? 0 : (long) (-tokens / rate * 1e9);
+            return Math.max(waitNanos, pausedUntil - now);
+        }
+
+        private synchronized double slowDown(double factor) {
+            refill(System.nanoTime());
+            rate = Math.max(MIN_REQUESTS_PER_SECOND, rate * factor);
+            return rate;
+        }
+
+        private synchronized void recover(double step) {
+            refill(System.nanoTime());
+            rate = Math.min(ceiling, rate + step);
+        }
+
+        private synchronized void pause(long until) {
+            pausedUntil = Math.max(pausedUntil, until);
+            tokens = Math.min(tokens, 0); // No burst right after the pause
+        }
+
+        private synchronized void limit(double maxRate) {
+            ceiling = Math.min(ceiling, maxRate);
+            rate = Math.min(rate, ceiling);
+            capacity = 1;
+            tokens = Math.min(tokens, capacity);
+        }
+
+        private synchronized double getRate() {
+            return rate;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / 1e9 * rate);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.bookmatch.webscrapers;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code HtmlDocument} class is a small, allocation-light reader for static HTML.
+ * It locates elements by a single attribute (id, itemprop, property, ...) and returns
+ * attribute values or text content, which is all the static fast path needs
+ * to read microdata and meta tags without a browser or a full DOM.
+ */
+public class HtmlDocument {
+
+    private static final Pattern TAG_PATTERN = Pattern.compile("<[^>]+>");
+    private static final Pattern NUMERIC_ENTITY_PATTERN = Pattern.compile("&#(x?)([0-9a-fA-F]+);");
+    private static final Pattern ITEM_TYPE_PATTERN = Pattern.compile(
+            "<([a-zA-Z][a-zA-Z0-9]*)\\b[^>]*?\\sitemtype\\s*=\\s*([\"'])https?://schema\\.org/([A-Za-z]+)\\2[^>]*>");
+
+    private final String html;
+
+    /**
+     * Constructs an HtmlDocument over the given page source.
+     *
+     * @param html The HTML source of the page.
+     */
+    public HtmlDocument(String html) {
+        this.html = html == null ? "" : html;
+    }
+
+    /**
+     * Returns the raw HTML source.
+     *
+     * @return The HTML source of the page.
+     */
+    public String getHtml() {
+        return html;
+    }
+
+    /**
+     * Returns an attribute of the first element whose attribute {@code attrName} equals {@code attrValue}.
+     *
+     * @param attrName  The attribute used to locate the element, e.g. "id" or "itemprop".
+     * @param attrValue The value the locating attribute must have.
+     * @param wanted    The attribute to read from the located element.
+     * @return The decoded attribute value, or {@code null} if the element or attribute is missing.
+     */
+    public String attribute(String attrName, String attrValue, String wanted) {
+        Matcher tag = findStartTag(attrName, attrValue);
+        return tag == null ? null : attributeOf(tag.group(), wanted);
+    }
+
+    /**
+     * Returns the text content of the first element whose attribute {@code attrName} equals {@code attrValue}.
+     * Nested markup is stripped and whitespace is collapsed.
+     *
+     * @param attrName  The attribute used to locate the element.
+     * @param attrValue The value the locating attribute must have.
+     * @return The text of the element, or {@code null} if the element is missing or empty.
+     */
+    public String text(String attrName, String attrValue) {
+        Matcher tag = findStartTag(attrName, attrValue);
+        if (tag == null) {
+            return null;
+        }
+        int end = html.indexOf("</" + tag.group(1), tag.end());
+        if (end < 0) {
+            return null;
+        }
+        String text = decodeEntities(TAG_PATTERN.matcher(html.substring(tag.end(), end)).replaceAll(" "))
+                .replaceAll("\\s+", " ")
+                .trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * Returns the value of a microdata property. The {@code content} attribute is preferred,
+     * then {@code src} or {@code href} for media and links, then the element text.
+     *
+     * @param name The itemprop name, e.g. "datePublished".
+     * @return The property value, or {@code null} if the property is missing.
+     */
+    public String itemprop(String name) {
+        Matcher tag = findStartTag("itemprop", name);
+        if (tag == null) {
+            return null;
+        }
+        for (String wanted : new String[]{"content", "src", "href"}) {
+            String value = attributeOf(tag.group(), wanted);
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return text("itemprop", name);
+    }
+
+    /**
+     * Returns the element of the first microdata item of one of the given schema.org types, so that
+     * its properties can be read without picking up those of other items on the page.
+     *
+     * @param types The item types, e.g. "Book" or "Product".
+     * @return A document holding only the item's element, or {@code null} if the page has no such item.
+     */
+    public HtmlDocument itemscope(String... types) {
+        Matcher tag = ITEM_TYPE_PATTERN.matcher(html);
+        while (tag.find()) {
+            for (String type : types) {
+                if (type.equals(tag.group(3))) {
+                    return new HtmlDocument(html.substring(tag.start(), elementEnd(tag.group(1), tag.end())));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the content of a {@code <meta>} tag identified by its {@code property} or {@code name} attribute,
+     * e.g. "og:image" or "description".
+     *
+     * @param property The property or name of the meta tag.
+     * @return The content of the meta tag, or {@code null} if it is missing.
+     */
+    public String meta(String property) {
+        String content = attribute("property", property, "content");
+        return content != null ? content : attribute("name", property, "content");
+    }
+
+    /**
+     * Finds the first start tag carrying the given attribute value.
+     *
+     * @param attrName  The attribute name.
+     * @param attrValue The attribute value.
+     * @return A matcher positioned on the start tag, with the tag name in group 1, or {@code null}.
+     */
+    private Matcher findStartTag(String attrName, String attrValue) {
+        Pattern pattern = Pattern.compile("<([a-zA-Z][a-zA-Z0-9]*)\\b[^>]*?\\s" + Pattern.quote(attrName)
+                + "\\s*=\\s*([\"'])" + Pattern.quote(attrValue) + "\\2[^>]*>");
+        Matcher matcher = pattern.matcher(html);
+        return matcher.find() ? matcher : null;
+    }
+
+    /**
+     * Finds the end of an element by matching its start and end tags, counting nested elements of the same name.
+     *
+     * @param tagName The element's tag name.
+     * @param from    The position just after the element's start tag.
+     * @return The position just after the element's end tag, or the end of the document if it is not closed.
+     */
+    private int elementEnd(String tagName, int from) {
+        Matcher matcher = Pattern.compile("<(/?)" + Pattern.quote(tagName) + "\\b[^>]*>", Pattern.CASE_INSENSITIVE).matcher(html);
+        matcher.region(from, html.length());
+        int depth = 1;
+        while (matcher.find()) {
+            depth += matcher.group(1).isEmpty() ? 1 : -1;
+            if (depth == 0) {
+                return matcher.end();
+            }
+        }
+        return html.length();
+    }
+
+    /**
+     * Reads an attribute from a single start tag.
+     *
+     * @param tag    The start tag source.
+     * @param wanted The attribute name.
+     * @return The decoded attribute value, or {@code null} if it is missing.
+     */
+    private static String attributeOf(String tag, String wanted) {
+        Matcher matcher = Pattern.compile("\\s" + Pattern.quote(wanted) + "\\s*=\\s*(\"([^\"]*)\"|'([^']*)')").matcher(tag);
+        if (!matcher.find()) {
+            return null;
+        }
+        String value = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+        return decodeEntities(value).trim();
+    }
+
+    /**
+     * Decodes the HTML entities that commonly appear in product data.
+     * Numeric entities that do not name a valid character are left as they are.
+     *
+     * @param text The text to decode.
+     * @return The decoded text.
+     */
+    static String decodeEntities(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        Matcher matcher = NUMERIC_ENTITY_PATTERN.matcher(text);
+        StringBuilder decoded = new StringBuilder();
+        while (matcher.find()) {
+            String character;
+            try {
+                int codePoint = Integer.parseInt(matcher.group(2), matcher.group(1).isEmpty() ? 10 : 16);
+                character = new String(Character.toChars(codePoint));
+            } catch (IllegalArgumentException ex) {
+                character = matcher.group(); // E.g. "&#12a;" or a code point beyond Unicode
+            }
+            matcher.appendReplacement(decoded, Matcher.quoteReplacement(character));
+        }
+        matcher.appendTail(decoded);
+        return decoded.toString()
+                .replace("&nbsp;", " ")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&pound;", "£")
+                .replace("&euro;", "€")
+                .replace("&amp;", "&");
+    }
+}
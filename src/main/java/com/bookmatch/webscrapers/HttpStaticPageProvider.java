@@ -0,0 +1,133 @@
+package com.bookmatch.webscrapers;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The {@code HttpStaticPageProvider} class implements {@link StaticPageProvider}
+ * using the JDK {@link HttpClient}, so static product pages can be read
+ * without launching a browser. With a {@link HostRateLimiter} set, every request waits for its host's turn
+ * and reports the response back, so 429 and 503 answers slow the host down.
+ */
+@Component
+public class HttpStaticPageProvider implements StaticPageProvider {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15); // Connect and request timeout
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/115.0";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private HostRateLimiter rateLimiter; // Optional per-host throttle, null to send requests immediately
+
+    /**
+     * Sets the rate limiter that spaces out the requests to each host.
+     *
+     * @param rateLimiter The HostRateLimiter instance, or null to send requests immediately.
+     */
+    public void setRateLimiter(HostRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Fetches the raw HTML of a page with a plain HTTP GET request.
+     *
+     * @param url The URL of the page to fetch.
+     * @return The HTML source of the page.
+     * @throws IOException If the request failed or the response status was not 2xx.
+     */
+    @Override
+    public String getPageSource(String url) throws IOException {
+        return getPage(url, null, null).getHtml();
+    }
+
+    /**
+     * Fetches a page with a conditional GET request, sending If-None-Match and If-Modified-Since
+     * when validators from a previous fetch are known.
+     *
+     * @param url          The URL of the page to fetch.
+     * @param etag         The ETag from the previous fetch, or null.
+     * @param lastModified The Last-Modified date from the previous fetch, or null.
+     * @return The page with its validators, or a not modified marker on a 304 response.
+     * @throws IOException If the request failed or the response status was neither 2xx nor 304.
+     */
+    @Override
+    public StaticPage getPage(String url, String etag, String lastModified) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<String> response;
+        long start = System.nanoTime();
+        try {
+            if (rateLimiter != null) {
+                rateLimiter.acquire(url);
+                start = System.nanoTime();
+            }
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + url, ex);
+        }
+        if (rateLimiter != null) {
+            if (response.statusCode() == 429 || response.statusCode() == 503) {
+                rateLimiter.recordThrottled(url, parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+            } else {
+                rateLimiter.recordResponse(url, Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+
+        if (response.statusCode() == 304) {
+            // The validators stay valid unless the server sent fresh ones with the 304
+            return new StaticPage(null, response.headers().firstValue("ETag").orElse(etag),
+                    response.headers().firstValue("Last-Modified").orElse(lastModified), true);
+        }
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new IOException("Unexpected HTTP status " + response.statusCode() + " for " + url);
+        }
+        return new StaticPage(response.body(), response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null), false);
+    }
+
+    /**
+     * Reads a Retry-After header, given either in seconds or as an HTTP date.
+     *
+     * @param retryAfter The header value, or null.
+     * @return The time to wait, or null if the header is missing or unreadable.
+     */
+    static Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException ex) {
+            // Not a number of seconds, try an HTTP date
+        }
+        try {
+            Duration wait = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return wait.isNegative() ? Duration.ZERO : wait;
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bookmatch.webscrapers;
+
+/**
+ * A book as it appears on a retailer's listing page: the link to its book page, its position
+ * in the listing and, when the listing card shows them, its price and title.
+ */
+public class ListingEntry {
+
+    private final String url;
+    private final int position;
+    private final Double price;
+    private final String title;
+
+    /**
+     * Constructs a ListingEntry without a title.
+     *
+     * @param url      The URL of the book page.
+     * @param position The 1-based position of the book across all listing pages of the run.
+     * @param price    The price shown on the listing card, or null if the card shows none.
+     */
+    public ListingEntry(String url, int position, Double price) {
+        this(url, position, price, null);
+    }
+
+    /**
+     * Constructs a ListingEntry.
+     *
+     * @param url      The URL of the book page.
+     * @param position The 1-based position of the book across all listing pages of the run.
+     * @param price    The price shown on the listing card, or null if the card shows none.
+     * @param title    The text of the card's link, or null if it was not read.
+     */
+    public ListingEntry(String url, int position, Double price, String title) {
+        this.url = url;
+        this.position = position;
+        this.price = price;
+        this.title = title;
+    }
+
+    /**
+     * Returns the URL of the book page.
+     *
+     * @return The book page URL.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the position of the book in the listing.
+     *
+     * @return The 1-based listing position.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the price shown on the listing card.
+     *
+     * @return The listing price, or null if the card shows none.
+     */
+    public Double getPrice() {
+        return price;
+    }
+
+    /**
+     * Returns the text of the listing card's link, usually the book title.
+     *
+     * @return The title, or null if it was not read.
+     */
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,216 @@
+package com.bookmatch.webscrapers;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Duration;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code PageReadiness} class replaces fixed page-load sleeps with condition based waiting.
+ * A page is considered ready once the document has finished loading, the retailer specific
+ * target element is present and, optionally, no new network requests were started for a short quiet period.
+ * A listing page can also end the wait without the target: the empty page after the last one is ready as soon as it
+ * shows the retailer's end-of-listing marker. A page that shows neither is not ready, however long it stays quiet.
+ * The measured time-to-ready is recorded per site and page type.
+ */
+public class PageReadiness {
+
+    /** Default maximum time to wait for a page to become ready. */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100); // Interval between readiness checks
+    private static final long NETWORK_QUIET_MILLIS = 500; // Time without new resource requests to count as network idle
+
+    /** Time-to-ready statistics in milliseconds, keyed by "site/pageType". */
+    private static final Map<String, ReadinessStats> STATS = new ConcurrentHashMap<>();
+
+    private final String site; // Site name used as the statistics key
+    private final Duration timeout; // Maximum time to wait for readiness
+    private final boolean waitForNetworkIdle; // Whether network idle is part of the readiness condition
+
+    /**
+     * Constructs a PageReadiness for a site using the default timeout and no network idle check.
+     *
+     * @param site The site name used when recording statistics.
+     */
+    public PageReadiness(String site) {
+        this(site, DEFAULT_TIMEOUT, false);
+    }
+
+    /**
+     * Constructs a PageReadiness for a site.
+     *
+     * @param site               The site name used when recording statistics.
+     * @param timeout            Maximum time to wait for a page to become ready.
+     * @param waitForNetworkIdle Whether to also wait for the page to stop loading resources.
+     */
+    public PageReadiness(String site, Duration timeout, boolean waitForNetworkIdle) {
+        this.site = site;
+        this.timeout = timeout;
+        this.waitForNetworkIdle = waitForNetworkIdle;
+    }
+
+    /**
+     * Waits until the page loaded in the driver is ready to be scraped.
+     *
+     * @param driver   The WebDriver that has navigated to the page.
+     * @param pageType A short label for the kind of page, e.g. "listing" or "detail".
+     * @param target   Locator of an element that must be present before the page is scraped.
+     * @return {@code true} if the page became ready, {@code false} if the wait timed out.
+     */
+    public boolean awaitReady(WebDriver driver, String pageType, By target) {
+        return awaitReady(driver, pageType, target, null);
+    }
+
+    /**
+     * Waits until a listing page loaded in the driver is ready to be scraped, or shows that the listing has ended.
+     * The page past the last one is ready as soon as the end marker is present. Without a marker, a page that never
+     * shows the target times out, as a slow render cannot be told apart from the end of the listing.
+     *
+     * @param driver    The WebDriver that has navigated to the page.
+     * @param pageType  A short label for the kind of page, e.g. "listing".
+     * @param target    Locator of an element that is present when the page lists books.
+     * @param endMarker Locator of an element shown instead when there are no more books, e.g. a "no results" message,
+     *                  or {@code null} if the retailer has none.
+     * @return {@code true} if the page became ready or ended, {@code false} if the wait timed out.
+     */
+    public boolean awaitListingReady(WebDriver driver, String pageType, By target, By endMarker) {
+        return awaitReady(driver, pageType, target, endMarker);
+    }
+
+    private boolean awaitReady(WebDriver driver, String pageType, By target, By endMarker) {
+        long start = System.nanoTime();
+        NetworkIdleTracker networkIdle = new NetworkIdleTracker();
+        boolean ready;
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(POLL_INTERVAL)
+                    .until(d -> {
+                        if (!isDocumentComplete(d)) {
+                            return false;
+                        }
+                        if (!d.findElements(target).isEmpty()) {
+                            return !waitForNetworkIdle || networkIdle.isIdle(d);
+                        }
+                        // No books on the page, which only ends the listing when the page says so
+                        return endMarker != null && !d.findElements(endMarker).isEmpty();
+                    });
+            ready = true;
+        } catch (TimeoutException ex) {
+            System.out.println(site + " " + pageType + " page not ready after " + timeout.toMillis() + " ms");
+            ready = false;
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        STATS.computeIfAbsent(site + "/" + pageType, key -> new ReadinessStats()).record(elapsedMillis, ready);
+        return ready;
+    }
+
+    /**
+     * Returns a copy of the recorded time-to-ready statistics for successfully loaded pages.
+     *
+     * @return Statistics in milliseconds keyed by "site/pageType".
+     */
+    public static Map<String, LongSummaryStatistics> getTimeToReadyStats() {
+        Map<String, LongSummaryStatistics> snapshot = new TreeMap<>();
+        STATS.forEach((key, stats) -> snapshot.put(key, stats.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * Prints the recorded readiness statistics for this site.
+     */
+    public void printStats() {
+        STATS.forEach((key, stats) -> {
+            if (key.startsWith(site + "/")) {
+                System.out.println("Readiness " + key + ": " + stats);
+            }
+        });
+    }
+
+    /**
+     * Checks whether the browser reports the document as fully loaded.
+     * Drivers that cannot execute scripts are treated as complete.
+     *
+     * @param driver The WebDriver to check.
+     * @return {@code true} if document.readyState is "complete".
+     */
+    private static boolean isDocumentComplete(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return true;
+        }
+        try {
+            return "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+        } catch (WebDriverException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Tracks the number of resources requested by the page between polls
+     * to detect when network activity has settled.
+     */
+    private static final class NetworkIdleTracker {
+        private long lastResourceCount = -1;
+        private long unchangedSince = 0;
+
+        private boolean isIdle(WebDriver driver) {
+            if (!(driver instanceof JavascriptExecutor)) {
+                return true;
+            }
+            Object result;
+            try {
+                result = ((JavascriptExecutor) driver).executeScript("return performance.getEntriesByType('resource').length");
+            } catch (WebDriverException ex) {
+                return true; // Resource timing unavailable, fall back to the other conditions
+            }
+            long resourceCount = result instanceof Number ? ((Number) result).longValue() : 0;
+            long now = System.currentTimeMillis();
+            if (resourceCount != lastResourceCount) {
+                lastResourceCount = resourceCount;
+                unchangedSince = now;
+                return false;
+            }
+            return now - unchangedSince >= NETWORK_QUIET_MILLIS;
+        }
+    }
+
+    /**
+     * Thread safe accumulator of time-to-ready measurements and timeouts.
+     */
+    private static final class ReadinessStats {
+        private final LongSummaryStatistics readyMillis = new LongSummaryStatistics();
+        private long timeouts = 0;
+
+        private synchronized void record(long elapsedMillis, boolean ready) {
+            if (ready) {
+                readyMillis.accept(elapsedMillis);
+            } else {
+                timeouts++;
+            }
+        }
+
+        private synchronized LongSummaryStatistics snapshot() {
+            LongSummaryStatistics copy = new LongSummaryStatistics();
+            copy.combine(readyMillis);
+            return copy;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "ready=" + readyMillis.getCount()
+                    + ", avg=" + Math.round(readyMillis.getAverage()) + " ms"
+                    + ", max=" + (readyMillis.getCount() > 0 ? readyMillis.getMax() : 0) + " ms"
+                    + ", timeouts=" + timeouts;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.bookmatch.webscrapers;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PooledWebDriverProvider} class keeps a bounded pool of warm WebDriver sessions
+ * on top of another {@link WebDriverProvider}, so scrapers borrow an already running browser
+ * instead of launching a new one for every page.
+ * Sessions are health checked before they are handed out and recycled after a fixed number of pages.
+ * The pool is the browser budget of the whole application: borrowers queue once the maximum number of sessions
+ * is out, and with a {@link BrowserMemoryProbe} a session that outgrew its memory ceiling is restarted when it comes
+ * back, while no new browser is launched as long as the sessions together use more than the total memory ceiling.
+ */
+public class PooledWebDriverProvider implements WebDriverProvider, AutoCloseable {
+
+    /** Default maximum number of browser sessions held by the pool. */
+    public static final int DEFAULT_MAX_SIZE = 6;
+
+    /** Default number of pages a session may serve before it is quit and replaced. */
+    public static final int DEFAULT_MAX_PAGES_PER_SESSION = 50;
+
+    private static final long MEMORY_WAIT_MILLIS = 100; // Poll interval while waiting for a session under memory pressure
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private final WebDriverProvider delegate; // Provider used to launch new sessions
+    private final int maxPagesPerSession; // Pages served before a session is recycled
+    private final Semaphore permits; // Bounds the number of sessions handed out at once
+    private final LinkedBlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+    private final Object memoryAccounting = new Object(); // Guards moving a session from leased to idle against the budget check
+    private volatile boolean closed = false;
+    private BrowserMemoryProbe memoryProbe; // Measures sessions when they come back, null to ignore memory
+    private long maxSessionMemory = 0; // Resident bytes above which a session is restarted, 0 for no ceiling
+    private long maxTotalMemory = 0; // Resident bytes of all sessions above which no new one is launched, 0 for no ceiling
+
+    /**
+     * Constructs a pool with the default size and recycle settings.
+     *
+     * @param delegate The provider used to launch new WebDriver sessions.
+     */
+    public PooledWebDriverProvider(WebDriverProvider delegate) {
+        this(delegate, DEFAULT_MAX_SIZE, DEFAULT_MAX_PAGES_PER_SESSION);
+    }
+
+    /**
+     * Constructs a pool with explicit size and recycle settings.
+     *
+     * @param delegate           The provider used to launch new WebDriver sessions.
+     * @param maxSize            Maximum number of sessions that can be borrowed at the same time.
+     * @param maxPagesPerSession Number of borrows after which a session is quit and replaced.
+     */
+    public PooledWebDriverProvider(WebDriverProvider delegate, int maxSize, int maxPagesPerSession) {
+        if (maxSize < 1 || maxPagesPerSession < 1) {
+            throw new IllegalArgumentException("Pool size and pages per session must be positive");
+        }
+        this.delegate = delegate;
+        this.maxPagesPerSession = maxPagesPerSession;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Sets the memory limits of the browser sessions, measured with the given probe whenever a session is released.
+     *
+     * @param memoryProbe      Measures the resident memory of a session, or null to ignore memory.
+     * @param maxSessionMemory Resident bytes above which a released session is restarted, 0 for no ceiling.
+     * @param maxTotalMemory   Resident bytes of all sessions above which borrowers wait for a released session
+     *                         instead of launching a new browser, 0 for no ceiling.
+     */
+    public void setMemoryLimits(BrowserMemoryProbe memoryProbe, long maxSessionMemory, long maxTotalMemory) {
+        this.memoryProbe = memoryProbe;
+        this.maxSessionMemory = maxSessionMemory;
+        this.maxTotalMemory = maxTotalMemory;
+    }
+
+    /**
+     * Borrows a healthy WebDriver session from the pool, launching a new one if no idle session is available.
+     * Blocks while the maximum number of sessions is already borrowed, and while the sessions are over the
+     * total memory ceiling and another session will be released.
+     *
+     * @return A WebDriver session that must be handed back with {@link #releaseWebDriver(WebDriver)}.
+     */
+    @Override
+    public WebDriver getWebDriver() {
+        if (closed) {
+            throw new IllegalStateException("WebDriver pool has been closed");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a pooled WebDriver", ex);
+        }
+
+        try {
+            PooledSession session = takeIdleSession();
+            while (session == null && isOverMemoryBudget()) {
+                // Reuse a running browser rather than start another one while memory is short
+                session = idleSessions.pollFirst(MEMORY_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                if (session != null && !isHealthy(session.driver)) {
+                    quitQuietly(session.driver);
+                    session = null;
+                }
+            }
+            if (session == null) {
+                session = new PooledSession(delegate.getWebDriver());
+            }
+            session.pagesServed++;
+            leasedSessions.put(session.driver, session);
+            return session.driver;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            permits.release();
+            throw new WebDriverException("Interrupted while waiting for a pooled WebDriver", ex);
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns a borrowed session to the pool. Sessions that crashed, reached the page limit
+     * or were returned after the pool was closed are quit instead of being reused.
+     *
+     * @param driver The WebDriver session previously obtained from {@link #getWebDriver()}.
+     */
+    @Override
+    public void releaseWebDriver(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        PooledSession session = leasedSessions.get(driver);
+        if (session == null) {
+            // Not one of ours, nothing to recycle
+            quitQuietly(driver);
+            return;
+        }
+
+        try {
+            if (memoryProbe != null) {
+                session.residentBytes = memoryProbe.getResidentBytes(driver);
+            }
+            if (closed || session.pagesServed >= maxPagesPerSession || !isHealthy(driver)) {
+                quitQuietly(driver);
+                leasedSessions.remove(driver);
+            } else if (maxSessionMemory > 0 && session.residentBytes > maxSessionMemory) {
+                System.out.println("Restarting bloated WebDriver session using " + session.residentBytes / MEGABYTE + " MB");
+                quitQuietly(driver);
+                leasedSessions.remove(driver);
+            } else {
+                // Move the session in one step, so the memory budget never misses it and no borrower
+                // can lease it before this lease is gone
+                synchronized (memoryAccounting) {
+                    leasedSessions.remove(driver);
+                    idleSessions.offerFirst(session); // Most recently used first keeps the hottest sessions busy
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the number of idle sessions currently held by the pool.
+     *
+     * @return The number of idle sessions.
+     */
+    public int getIdleCount() {
+        return idleSessions.size();
+    }
+
+    /**
+     * Returns the number of sessions currently borrowed from the pool.
+     *
+     * @return The number of borrowed sessions.
+     */
+    public int getLeasedCount() {
+        return leasedSessions.size();
+    }
+
+    /**
+     * Returns the resident memory of all live sessions as measured when each was last released.
+     *
+     * @return The total resident memory in bytes, 0 if nothing was measured.
+     */
+    public long getResidentBytes() {
+        synchronized (memoryAccounting) {
+            long total = 0;
+            for (PooledSession session : leasedSessions.values()) {
+                total += Math.max(session.residentBytes, 0);
+            }
+            for (PooledSession session : idleSessions) {
+                total += Math.max(session.residentBytes, 0);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Quits every idle session and prevents further borrowing.
+     * Sessions still borrowed are quit when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            quitQuietly(session.driver);
+        }
+    }
+
+    /**
+     * Takes the most recently used healthy idle session, quitting any unhealthy ones on the way.
+     *
+     * @return An idle session, or null if there is none.
+     */
+    private PooledSession takeIdleSession() {
+        PooledSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            if (isHealthy(session.driver)) {
+                return session;
+            }
+            System.out.println("Discarding unhealthy pooled WebDriver session");
+            quitQuietly(session.driver);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether launching another browser would exceed the total memory ceiling.
+     * Without other live sessions a browser is always launched, so a borrower never waits for nothing.
+     *
+     * @return {@code true} if the borrower should wait for a released session.
+     */
+    private boolean isOverMemoryBudget() {
+        return maxTotalMemory > 0 && !leasedSessions.isEmpty() && getResidentBytes() > maxTotalMemory;
+    }
+
+    /**
+     * Checks whether a session is still responsive by asking the browser for its window handle.
+     *
+     * @param driver The WebDriver session to check.
+     * @return {@code true} if the session answered, {@code false} if it crashed or was closed.
+     */
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Quits a session, ignoring failures from browsers that already died.
+     *
+     * @param driver The WebDriver session to quit.
+     */
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException ex) {
+            System.out.println("Unable to quit WebDriver session: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * A pooled session together with the number of pages it has served and its last measured memory.
+     */
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private int pagesServed = 0;
+        private volatile long residentBytes = -1;
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.bookmatch.webscrapers;
+
+import com.bookmatch.models.ScrapedItem;
+import org.openqa.selenium.By;
+
+import java.time.LocalDate;
+
+/**
+ * Describes how to scrape one retailer for the {@link ScrapingEngine}.
+ * An adapter only declares where the listing pages are, how to find the book links on them and
+ * where each book detail lives on a book page; the engine owns the fetching, waiting, parallelism and persistence.
+ * Structured data embedded in the page is always read first, the selectors are the fallback for missing fields.
+ */
+public interface RetailerAdapter {
+
+    /**
+     * The book details read from a book page.
+     */
+    enum Field {
+        TITLE, AUTHOR, DESCRIPTION, PUBLICATION_DATE, IMAGE_URL, PRICE
+    }
+
+    /**
+     * Returns the short name of the retailer used in logs and statistics, e.g. "Hpb".
+     *
+     * @return The short name.
+     */
+    String getSiteName();
+
+    /**
+     * Returns the retailer name stored with each price, e.g. "HPB.com".
+     *
+     * @return The retailer name.
+     */
+    String getRetailer();
+
+    /**
+     * Returns the currency the retailer's prices are shown in.
+     *
+     * @return The ISO 4217 currency code, pounds sterling unless the retailer says otherwise.
+     */
+    default String getCurrency() {
+        return "GBP";
+    }
+
+    /**
+     * Returns the URL of a listing page.
+     *
+     * @param page The page number, starting at {@link #getFirstPage()}.
+     * @return The listing page URL.
+     */
+    String getListingUrl(int page);
+
+    /**
+     * Returns the number of the first listing page.
+     *
+     * @return The first page number.
+     */
+    default int getFirstPage() {
+        return 1;
+    }
+
+    /**
+     * Returns whether the listing continues on further pages. Single page listings stop after the first page.
+     *
+     * @return True if the listing is paginated.
+     */
+    default boolean isPaginated() {
+        return true;
+    }
+
+    /**
+     * Returns the maximum number of books scraped from the retailer in one run.
+     *
+     * @return The item limit.
+     */
+    default int getMaxItems() {
+        return 500;
+    }
+
+    /**
+     * Returns how many book pages are fetched at once.
+     *
+     * @return The detail page parallelism.
+     */
+    default int getDetailParallelism() {
+        return 1;
+    }
+
+    /**
+     * Returns whether page readiness also waits for network activity to settle, for sites that keep loading content.
+     *
+     * @return True to wait for the network to go quiet.
+     */
+    default boolean isWaitForNetworkIdle() {
+        return false;
+    }
+
+    /**
+     * Returns the selector matching each book on a listing page; its presence marks the listing as rendered.
+     *
+     * @return The listing selector.
+     */
+    By getListingSelector();
+
+    /**
+     * Returns the selector of the message a listing page shows instead of books once the listing has ended,
+     * so the page past the last one is told apart from a page that failed to render.
+     * By default this is an element whose own text says there are no results or no products;
+     * a retailer that words its empty page differently overrides it.
+     *
+     * @return The end-of-listing selector, or {@code null} if the retailer shows no such message.
+     */
+    default By getListingEndSelector() {
+        return By.xpath("//body//*[not(self::script or self::style)][text()["
+                + "contains(translate(., 'NORESULTPDC', 'noresultpdc'), 'no results')"
+                + " or contains(translate(., 'NORESULTPDC', 'noresultpdc'), 'no products')]]");
+    }
+
+    /**
+     * Returns the selector of the book link inside a listing entry.
+     *
+     * @return The link selector, or {@code null} if the listing entry is the link itself.
+     */
+    By getBookLinkSelector();
+
+    /**
+     * Returns the selector of the price inside a listing entry, used to spot price changes without opening the book page.
+     *
+     * @return The listing price selector, or {@code null} if the listing does not show prices.
+     */
+    default By getListingPriceSelector() {
+        return null;
+    }
+
+    /**
+     * Returns the selector whose presence marks a book page as rendered.
+     *
+     * @return The detail ready selector.
+     */
+    By getDetailReadySelector();
+
+    /**
+     * Returns the selector of a book detail, used when the page's structured data does not provide it.
+     *
+     * @param field The book detail.
+     * @return The selector, or {@code null} if the retailer does not show the detail.
+     */
+    By getSelector(Field field);
+
+    /**
+     * Returns the attribute holding a book detail.
+     *
+     * @param field The book detail.
+     * @return The attribute name, or {@code null} to read the element text.
+     */
+    default String getAttribute(Field field) {
+        return field == Field.IMAGE_URL ? "src" : null;
+    }
+
+    /**
+     * Returns whether a page missing the detail is treated as unreadable.
+     *
+     * @param field The book detail.
+     * @return True if the detail is required.
+     */
+    default boolean isRequired(Field field) {
+        return true;
+    }
+
+    /**
+     * Tidies a text detail read from the page, e.g. to remove format suffixes.
+     *
+     * @param field The book detail, one of title, author or description.
+     * @param value The value read from the page.
+     * @return The cleaned value.
+     */
+    default String clean(Field field, String value) {
+        return value.trim();
+    }
+
+    /**
+     * Parses the price text shown on the page.
+     *
+     * @param text The price text.
+     * @return The price, or {@code null} if it could not be parsed.
+     */
+    default Double parsePrice(String text) {
+        return StructuredDataExtractor.parsePrice(text);
+    }
+
+    /**
+     * Parses the publication date text shown on the page.
+     *
+     * @param text The date text.
+     * @return The date, or {@code null} if it could not be parsed.
+     */
+    default LocalDate parsePublicationDate(String text) {
+        return StructuredDataExtractor.parseIsoDate(text);
+    }
+
+    /**
+     * Fills in defaults for details the retailer does not always publish.
+     *
+     * @param item The extracted book.
+     */
+    default void complete(ScrapedItem item) {
+    }
+
+    /**
+     * Returns whether the retailer's pages need JavaScript to show the data the scraper reads.
+     * Retailers that do not are rendered by a browser with scripts switched off, when the engine has one.
+     *
+     * @return False if the listing and book pages are complete without JavaScript.
+     */
+    default boolean isJavaScriptRequired() {
+        return true;
+    }
+
+    /**
+     * Returns whether book pages can be read from their static HTML through {@link #extractStatic(String)}.
+     *
+     * @return True to try a plain HTTP fetch before the browser.
+     */
+    default boolean isStaticPageSupported() {
+        return false;
+    }
+
+    /**
+     * Extracts a book from the static HTML of its page, without a browser.
+     *
+     * @param pageSource The HTML returned by a plain HTTP request.
+     * @return The extracted book, or {@code null} to render the page in the browser instead.
+     */
+    default ScrapedItem extractStatic(String pageSource) {
+        return null;
+    }
+}
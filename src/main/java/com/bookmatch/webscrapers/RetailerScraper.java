@@ -0,0 +1,113 @@
+package com.bookmatch.webscrapers;
+
+import com.bookmatch.ProductDao;
+import com.bookmatch.WriteBehindQueue;
+
+/**
+ * Base class of the retailer scrapers. Each subclass only declares its retailer as a {@link RetailerAdapter};
+ * {@link #scrape()} hands it to a {@link ScrapingEngine}, either the shared one set through
+ * {@link #setScrapingEngine(ScrapingEngine)} or one built from this scraper's own provider and DAO.
+ * The {@link Scraper} runs it on its executor; for standalone use it can be run as a {@link Runnable}.
+ */
+public abstract class RetailerScraper implements RetailerAdapter, Runnable {
+
+    private final WebDriverProvider webDriverProvider;
+    private ProductDao productDao;
+    private WriteBehindQueue writeBehindQueue; // Optional asynchronous writer, books are saved directly when unset
+    private StaticPageProvider staticPageProvider; // Optional plain HTTP fast path, null to always use the browser
+    private ScrapingEngine scrapingEngine; // Shared engine, null to build one from the fields above
+    private int detailParallelism = 1; // Number of book pages fetched at once
+
+    /**
+     * Constructs a RetailerScraper.
+     *
+     * @param webDriverProvider Provides WebDriver instances for scraping.
+     */
+    protected RetailerScraper(WebDriverProvider webDriverProvider) {
+        this.webDriverProvider = webDriverProvider;
+    }
+
+    /**
+     * Sets the ProductDao instance used for saving scraped data.
+     *
+     * @param productDao The ProductDao instance.
+     */
+    public void setProductDao(ProductDao productDao) {
+        this.productDao = productDao;
+    }
+
+    /**
+     * Sets the write-behind queue that takes scraped books off the scraping thread for saving.
+     *
+     * @param writeBehindQueue WriteBehindQueue instance
+     */
+    public void setWriteBehindQueue(WriteBehindQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    /**
+     * Sets the StaticPageProvider used to read book pages without a browser.
+     * Pages whose static HTML lacks any required field are still rendered in the browser.
+     *
+     * @param staticPageProvider The StaticPageProvider instance to be set, or null to disable the fast path.
+     */
+    public void setStaticPageProvider(StaticPageProvider staticPageProvider) {
+        this.staticPageProvider = staticPageProvider;
+    }
+
+    /**
+     * Sets the engine that runs this scraper. The engine's own provider, DAO and queue are then used.
+     *
+     * @param scrapingEngine The ScrapingEngine instance.
+     */
+    public void setScrapingEngine(ScrapingEngine scrapingEngine) {
+        this.scrapingEngine = scrapingEngine;
+    }
+
+    /**
+     * Sets how many book pages of a listing page are fetched at once.
+     *
+     * @param detailParallelism Number of concurrent detail page fetches, 1 to fetch them one by one.
+     */
+    public void setDetailParallelism(int detailParallelism) {
+        this.detailParallelism = detailParallelism;
+    }
+
+    @Override
+    public int getDetailParallelism() {
+        return detailParallelism;
+    }
+
+    /**
+     * Returns the engine that runs this scraper.
+     *
+     * @return The shared engine, or a new one built from this scraper's provider and DAO.
+     */
+    public ScrapingEngine getScrapingEngine() {
+        if (scrapingEngine != null) {
+            return scrapingEngine;
+        }
+        ScrapingEngine engine = new ScrapingEngine(webDriverProvider);
+        engine.setProductDao(productDao);
+        engine.setWriteBehindQueue(writeBehindQueue);
+        engine.setStaticPageProvider(staticPageProvider);
+        return engine;
+    }
+
+    /**
+     * Scrapes the retailer on the calling thread.
+     *
+     * @return The number of books scraped.
+     */
+    public int scrape() {
+        return getScrapingEngine().scrape(this);
+    }
+
+    /**
+     * Scrapes the retailer, see {@link #scrape()}.
+     */
+    @Override
+    public void run() {
+        scrape();
+    }
+}
@@ -0,0 +1,127 @@
+package com.bookmatch.webscrapers;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries page fetches that failed for a transient reason. Browser and network errors are retried
+ * a bounded number of times with exponential backoff and full jitter, so parallel workers do not retry
+ * in lock step. Missing elements and unparsable values mean the page itself is not what the scraper
+ * expects, so they fail at once. Every attempt goes through the retailer's {@link CircuitBreaker}.
+ */
+public class RetryPolicy {
+
+    /** Default number of attempts per page, including the first. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** Default upper bound of the wait before the first retry. */
+    public static final Duration DEFAULT_BASE_DELAY = Duration.ofSeconds(1);
+
+    /** Default upper bound of the wait before any retry. */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+    private static final long MAX_PAUSE_SLICE_MILLIS = 1000; // Longest sleep while waiting for an open breaker
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+
+    /**
+     * Constructs a RetryPolicy with the default settings.
+     */
+    public RetryPolicy() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Constructs a RetryPolicy.
+     *
+     * @param maxAttempts The number of attempts per page, including the first; 1 disables retries.
+     * @param baseDelay   The upper bound of the wait before the first retry, doubled for every further retry.
+     * @param maxDelay    The upper bound of the wait before any retry.
+     */
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximum attempts must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Runs a task until it succeeds, fails with an error that is not retryable or runs out of attempts.
+     * Before every attempt the task waits until the circuit breaker lets a request through.
+     *
+     * @param circuitBreaker The breaker of the retailer the task requests a page from.
+     * @param task           The fetch to run.
+     * @param <T>            The type of the task's result.
+     * @return The result of the first successful attempt.
+     * @throws InterruptedException  If the thread is interrupted while waiting.
+     * @throws IllegalStateException If the circuit breaker is exhausted.
+     * @throws Exception             The error of the last attempt.
+     */
+    public <T> T execute(CircuitBreaker circuitBreaker, Callable<T> task) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            awaitCircuit(circuitBreaker);
+            try {
+                T result = task.call();
+                circuitBreaker.recordSuccess();
+                return result;
+            } catch (InterruptedException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                circuitBreaker.recordFailure();
+                if (attempt >= maxAttempts || !isRetryable(ex)) {
+                    throw ex;
+                }
+                Duration backoff = getBackoff(attempt);
+                System.out.println("Attempt " + attempt + " failed (" + ex.getClass().getSimpleName() + "), retrying in " + backoff.toMillis() + " ms");
+                TimeUnit.MILLISECONDS.sleep(backoff.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Returns whether an error is worth retrying: a browser or network failure, but not a missing element
+     * or a value that could not be parsed.
+     *
+     * @param ex The error of a failed attempt.
+     * @return True if the attempt may succeed when repeated.
+     */
+    public boolean isRetryable(Throwable ex) {
+        if (ex instanceof NotFoundException) {
+            return false;
+        }
+        return ex instanceof WebDriverException || ex instanceof IOException || ex instanceof UncheckedIOException;
+    }
+
+    /**
+     * Returns the wait before a retry: a random time between zero and the base delay doubled once per earlier retry,
+     * capped at the maximum delay.
+     *
+     * @param attempt The number of the attempt that failed, starting at 1.
+     * @return The wait before the next attempt.
+     */
+    public Duration getBackoff(int attempt) {
+        long ceiling = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << Math.min(attempt - 1, 30));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private static void awaitCircuit(CircuitBreaker circuitBreaker) throws InterruptedException {
+        while (!circuitBreaker.tryAcquire()) {
+            if (circuitBreaker.isExhausted()) {
+                throw new IllegalStateException("Circuit breaker exhausted");
+            }
+            // Sleep in slices, another worker's trial request may close the breaker early
+            TimeUnit.MILLISECONDS.sleep(Math.max(10, Math.min(MAX_PAUSE_SLICE_MILLIS, circuitBreaker.getRemainingPause().toMillis())));
+        }
+    }
+}
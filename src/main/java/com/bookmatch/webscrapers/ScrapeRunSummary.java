@@ -0,0 +1,146 @@
+package com.bookmatch.webscrapers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of one {@link Scraper} run: how many books each retailer produced, how long it took
+ * and which retailers failed.
+ */
+public class ScrapeRunSummary {
+
+    private final List<RetailerResult> results;
+    private final Duration elapsed;
+
+    /**
+     * Constructs a ScrapeRunSummary.
+     *
+     * @param results The result of every retailer in the run.
+     * @param elapsed The wall clock time of the whole run.
+     */
+    public ScrapeRunSummary(List<RetailerResult> results, Duration elapsed) {
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns the result of every retailer, in the order they were scheduled.
+     *
+     * @return The retailer results.
+     */
+    public List<RetailerResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the wall clock time of the whole run.
+     *
+     * @return The run duration.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns the number of books scraped across all retailers.
+     *
+     * @return The total item count.
+     */
+    public int getTotalItems() {
+        return results.stream().mapToInt(RetailerResult::getItemCount).sum();
+    }
+
+    /**
+     * Returns the retailers whose scrape ended with an exception.
+     *
+     * @return The failed retailer results.
+     */
+    public List<RetailerResult> getFailures() {
+        return results.stream().filter(result -> !result.isSuccessful()).toList();
+    }
+
+    /**
+     * Prints one line per retailer and the run totals.
+     */
+    public void printSummary() {
+        for (RetailerResult result : results) {
+            System.out.println("Scraped " + result.getItemCount() + " books from " + result.getRetailer() + " in "
+                    + result.getElapsed().toSeconds() + "s" + (result.isSuccessful() ? "" : ", failed: " + result.getFailure()));
+        }
+        System.out.println("Scrape run finished: " + getTotalItems() + " books from " + results.size() + " retailers in "
+                + elapsed.toSeconds() + "s, " + getFailures().size() + " failed");
+    }
+
+    /**
+     * The outcome of scraping one retailer.
+     */
+    public static class RetailerResult {
+
+        private final String retailer;
+        private final int itemCount;
+        private final Duration elapsed;
+        private final Throwable failure;
+
+        /**
+         * Constructs a RetailerResult.
+         *
+         * @param retailer  The retailer name.
+         * @param itemCount The number of books scraped before the scrape ended.
+         * @param elapsed   How long the retailer was scraped.
+         * @param failure   The exception that ended the scrape, or null if it completed.
+         */
+        public RetailerResult(String retailer, int itemCount, Duration elapsed, Throwable failure) {
+            this.retailer = retailer;
+            this.itemCount = itemCount;
+            this.elapsed = elapsed;
+            this.failure = failure;
+        }
+
+        /**
+         * Returns the retailer name.
+         *
+         * @return The retailer name.
+         */
+        public String getRetailer() {
+            return retailer;
+        }
+
+        /**
+         * Returns the number of books scraped.
+         *
+         * @return The item count.
+         */
+        public int getItemCount() {
+            return itemCount;
+        }
+
+        /**
+         * Returns how long the retailer was scraped.
+         *
+         * @return The scrape duration.
+         */
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        /**
+         * Returns the exception that ended the scrape.
+         *
+         * @return The failure, or null if the scrape completed.
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * Returns whether the scrape completed without an exception.
+         *
+         * @return True if the scrape completed.
+         */
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+    }
+}
@@ -2,9 +2,20 @@ package com.bookmatch.webscrapers;
 
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * The {@code Scraper} class manages the simultaneous operation of several web scraping threads.
- * It gathers individual scrapers and launches them simultaneously.
+ * The {@code Scraper} class manages the simultaneous operation of several web scrapers.
+ * It gathers individual scrapers and runs them concurrently on an executor, either one platform thread
+ * per retailer or, in virtual thread mode, one virtual thread per retailer with the book pages fanned out
+ * on virtual threads by the {@link ScrapingEngine}. A run can be awaited, cancelled and summarised.
  */
 @Service
 public class Scraper {
@@ -27,6 +38,12 @@ public class Scraper {
     /** The scraper for the Owl's Nest Books website. */
     OwlsNestScraper owlsNestScraper;
 
+    /** Whether the run uses virtual threads instead of a platform thread per retailer. */
+    private boolean virtualThreads = false;
+
+    /** The executor of the run in progress, null when idle. */
+    private volatile ExecutorService executor;
+
     /**
      * Sets the WaterStonesScraper instance for this Scraper.
      *
@@ -82,15 +99,116 @@ public class Scraper {
     }
 
     /**
-     * Initiates the execution of individual scrapers concurrently.
-     * Each scraper runs in a separate thread.
+     * Sets whether retailers run on virtual threads. The engine of each scraper should be switched
+     * to virtual threads as well so that its book page fetches are not bounded by a fixed pool.
+     *
+     * @param virtualThreads True to use virtual threads.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Runs all scrapers concurrently and waits for them to finish.
+     * Interrupting the calling thread cancels the run.
+     *
+     * @return The summary of the run.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public ScrapeRunSummary scrape() throws InterruptedException {
+        CompletableFuture<ScrapeRunSummary> run = scrapeAsync();
+        try {
+            return run.get();
+        } catch (InterruptedException ex) {
+            cancel();
+            throw ex;
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Scrape run failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Starts all scrapers concurrently without waiting for them.
+     * A scraper that fails is recorded in the summary and does not affect the others.
+     *
+     * @return A future completed with the summary once every scraper has finished.
+     * @throws IllegalStateException If a run is already in progress.
+     */
+    public synchronized CompletableFuture<ScrapeRunSummary> scrapeAsync() {
+        if (executor != null) {
+            throw new IllegalStateException("A scrape run is already in progress");
+        }
+        List<RetailerScraper> scrapers = getScrapers();
+        ExecutorService runExecutor = createExecutor(scrapers.size());
+        executor = runExecutor;
+
+        long started = System.nanoTime();
+        List<CompletableFuture<ScrapeRunSummary.RetailerResult>> futures = new ArrayList<>();
+        for (RetailerScraper retailerScraper : scrapers) {
+            futures.add(CompletableFuture.supplyAsync(() -> scrapeRetailer(retailerScraper), runExecutor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    List<ScrapeRunSummary.RetailerResult> results = new ArrayList<>();
+                    futures.forEach(future -> results.add(future.join()));
+                    return new ScrapeRunSummary(results, Duration.ofNanos(System.nanoTime() - started));
+                })
+                .whenComplete((summary, ex) -> {
+                    runExecutor.shutdown();
+                    synchronized (this) {
+                        if (executor == runExecutor) {
+                            executor = null;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Cancels the run in progress by interrupting every scraper. Books already handed to the
+     * write-behind queue are still written.
+     */
+    public void cancel() {
+        ExecutorService runExecutor = executor;
+        if (runExecutor != null) {
+            runExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the configured scrapers in scheduling order.
+     *
+     * @return The retailer scrapers.
+     */
+    public List<RetailerScraper> getScrapers() {
+        List<RetailerScraper> scrapers = new ArrayList<>();
+        for (RetailerScraper retailerScraper : new RetailerScraper[]{dubrayScraper, qbdScraper, hpbScraper, waterStonesScraper, worderyScraper, owlsNestScraper}) {
+            if (retailerScraper != null) {
+                scrapers.add(retailerScraper);
+            }
+        }
+        return scrapers;
+    }
+
+    private ExecutorService createExecutor(int retailerCount) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("scraper-vthread-", 1).factory());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(retailerCount, 1), task -> new Thread(task, "scraper-" + threadCount.incrementAndGet()));
+    }
+
+    /**
+     * Scrapes one retailer, recording the outcome instead of propagating a failure.
      */
-    public void scrape() {
-        dubrayScraper.start();
-        qbdScraper.start();
-        hpbScraper.start();
-        waterStonesScraper.start();
-        worderyScraper.start();
-        owlsNestScraper.start();
+    private ScrapeRunSummary.RetailerResult scrapeRetailer(RetailerScraper retailerScraper) {
+        long started = System.nanoTime();
+        try {
+            int itemCount = retailerScraper.scrape();
+            return new ScrapeRunSummary.RetailerResult(retailerScraper.getRetailer(), itemCount, Duration.ofNanos(System.nanoTime() - started), null);
+        } catch (Exception ex) {
+            System.out.println("Scraper failed for " + retailerScraper.getRetailer());
+            ex.printStackTrace();
+            return new ScrapeRunSummary.RetailerResult(retailerScraper.getRetailer(), 0, Duration.ofNanos(System.nanoTime() - started), ex);
+        }
     }
 }
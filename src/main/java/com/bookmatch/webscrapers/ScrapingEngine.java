@@ -0,0 +1,933 @@
+package com.bookmatch.webscrapers;
+
+import com.bookmatch.ProductDao;
+import com.bookmatch.WriteBehindQueue;
+import com.bookmatch.models.ScrapedItem;
+import com.bookmatch.webscrapers.RetailerAdapter.Field;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Scrapes any retailer described by a {@link RetailerAdapter}.
+ * The engine walks the listing pages, fans the book pages out to a {@link DetailPageExecutor},
+ * tries the static HTML fast path before rendering a page in the browser, and hands each listing page
+ * to the {@link WriteBehindQueue} or saves it in one batch. Browser sessions are borrowed from the
+ * {@link WebDriverProvider} only for the duration of a single page.
+ * With a {@link CrawlStateStore} in incremental mode, only book pages that are new or look changed are revisited,
+ * and in price refresh mode known books only have their price updated from the listing card. A fetch is only recorded
+ * in the crawl state once its book is persisted, so a book that failed to save is fetched again on the next run.
+ * With a {@link HostRateLimiter}, every page load waits for its host's turn. Failed browser page loads are retried
+ * under a {@link RetryPolicy}, and each retailer has a {@link CircuitBreaker} that pauses it while it keeps failing.
+ * A {@link CheckpointStore} records each retailer's progress, so a run can be resumed after a crash.
+ * A per-run {@link UrlFrontier} compares book URLs in canonical form and makes sure each book page is fetched at most once
+ * per retailer and run, however the listing shifts between pages. Books are stored under the URL as listed,
+ * which keeps them matching the rows of earlier runs.
+ * With a listing lookahead, the next listing pages are fetched on a background thread while the book pages
+ * of the current one are scraped.
+ * One engine can scrape several retailers at once; all per-run state lives on the calling thread.
+ */
+public class ScrapingEngine {
+
+    private final WebDriverProvider webDriverProvider;
+    private ProductDao productDao;
+    private WriteBehindQueue writeBehindQueue; // Optional asynchronous writer, books are saved directly when unset
+    private StaticPageProvider staticPageProvider; // Optional browserless fetcher for adapters with static extraction
+    private Duration readyTimeout = PageReadiness.DEFAULT_TIMEOUT; // Maximum wait for a page to render
+    private boolean virtualThreads = false; // Whether book pages are fetched on one virtual thread each
+    private CrawlStateStore crawlStateStore; // Optional record of earlier fetches
+    private boolean incremental = false; // Whether unchanged pages are skipped
+    private Duration refreshInterval = CrawlStateStore.DEFAULT_REFRESH_INTERVAL; // Maximum age of a skipped page
+    private boolean priceRefresh = false; // Whether known books only get their listing price updated
+    private HostRateLimiter rateLimiter; // Optional per-host throttle for browser page loads
+    private RetryPolicy retryPolicy = new RetryPolicy(); // Retries of failed browser page loads
+    private int failureThreshold = CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; // Consecutive failures that pause a retailer
+    private Duration openDuration = CircuitBreaker.DEFAULT_OPEN_DURATION; // First pause of a failing retailer
+    private CheckpointStore checkpointStore; // Optional record of each retailer's progress in the current run
+    private WebDriverProvider noScriptWebDriverProvider; // Optional sessions without JavaScript for retailers that do not need it
+    private boolean scriptedExtraction = true; // Whether book page fields are read in one script call
+    private int listingLookahead = 0; // Listing pages fetched ahead of the one being scraped
+
+    /**
+     * Constructs a ScrapingEngine.
+     *
+     * @param webDriverProvider Provides WebDriver instances for scraping.
+     */
+    public ScrapingEngine(WebDriverProvider webDriverProvider) {
+        this.webDriverProvider = webDriverProvider;
+    }
+
+    /**
+     * Sets the ProductDao instance used for saving scraped data.
+     *
+     * @param productDao The ProductDao instance.
+     */
+    public void setProductDao(ProductDao productDao) {
+        this.productDao = productDao;
+    }
+
+    /**
+     * Sets the write-behind queue that takes scraped books off the scraping threads for saving.
+     *
+     * @param writeBehindQueue WriteBehindQueue instance
+     */
+    public void setWriteBehindQueue(WriteBehindQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    /**
+     * Sets the StaticPageProvider used to read book pages without a browser.
+     * Only adapters that support static pages use it.
+     *
+     * @param staticPageProvider The StaticPageProvider instance, or null to disable the fast path.
+     */
+    public void setStaticPageProvider(StaticPageProvider staticPageProvider) {
+        this.staticPageProvider = staticPageProvider;
+    }
+
+    /**
+     * Sets the maximum time to wait for a listing or book page to render.
+     *
+     * @param readyTimeout The readiness timeout.
+     */
+    public void setReadyTimeout(Duration readyTimeout) {
+        this.readyTimeout = readyTimeout;
+    }
+
+    /**
+     * Sets whether book pages are fetched on one virtual thread each instead of a fixed pool per retailer.
+     * Concurrency is then bounded by the per-host permits of {@link DetailPageExecutor} and the size of the
+     * browser pool, so static HTTP fetches can run by the thousand while browser pages wait for a session.
+     *
+     * @param virtualThreads True to use virtual threads.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Sets the store that records every book page fetch. It is updated on every run and only consulted
+     * to skip pages when incremental mode is on.
+     *
+     * @param crawlStateStore The CrawlStateStore instance, or null to keep no crawl state.
+     */
+    public void setCrawlStateStore(CrawlStateStore crawlStateStore) {
+        this.crawlStateStore = crawlStateStore;
+    }
+
+    /**
+     * Sets whether only changed book pages are revisited. In incremental mode a page is skipped unless it is new,
+     * its listing price or position changed or its refresh interval elapsed, and static pages are fetched
+     * with conditional requests. Requires a {@link CrawlStateStore}.
+     *
+     * @param incremental True to crawl incrementally.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Sets the time after which an incremental crawl revisits a page even if its listing entry looks unchanged.
+     *
+     * @param refreshInterval The refresh interval.
+     */
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Sets whether known books only have their price refreshed from the listing card. In price refresh mode
+     * book pages are only opened for books without a stored price, or whose card shows no price,
+     * which saves one page load per known book. Adapters without a listing price selector are scraped in full.
+     *
+     * @param priceRefresh True to refresh prices from the listing.
+     */
+    public void setPriceRefresh(boolean priceRefresh) {
+        this.priceRefresh = priceRefresh;
+    }
+
+    /**
+     * Sets the rate limiter that spaces out the browser page loads sent to each retailer host.
+     * Static fetches are throttled by the {@link StaticPageProvider} itself.
+     *
+     * @param rateLimiter The HostRateLimiter instance, or null to load pages as fast as the sessions allow.
+     */
+    public void setRateLimiter(HostRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Sets the policy used to retry listing and book pages that failed to load in the browser.
+     *
+     * @param retryPolicy The RetryPolicy instance.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Sets when a retailer is paused: after this many consecutive failed page loads its circuit breaker opens.
+     *
+     * @param failureThreshold The number of consecutive failures.
+     * @param openDuration     The first pause, doubled every time the retailer fails again right after a pause.
+     */
+    public void setCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Sets the provider of browser sessions with JavaScript switched off, used for retailers whose
+     * {@link RetailerAdapter#isJavaScriptRequired()} is false.
+     *
+     * @param noScriptWebDriverProvider The WebDriverProvider instance, or null to render every retailer with JavaScript.
+     */
+    public void setNoScriptWebDriverProvider(WebDriverProvider noScriptWebDriverProvider) {
+        this.noScriptWebDriverProvider = noScriptWebDriverProvider;
+    }
+
+    /**
+     * Sets whether the fields of a book page, and the cards of a listing page, are read in one {@code executeScript}
+     * call instead of one WebDriver round-trip per element. Drivers that cannot run scripts, and selectors without
+     * a script equivalent, fall back to reading the elements one by one.
+     *
+     * @param scriptedExtraction True to read pages by script.
+     */
+    public void setScriptedExtraction(boolean scriptedExtraction) {
+        this.scriptedExtraction = scriptedExtraction;
+    }
+
+    /**
+     * Sets how many listing pages are fetched ahead while the book pages of the current listing page are scraped,
+     * which hides the listing page loads behind the book page work. Each retailer then holds one extra browser
+     * session for its listing, so only use a lookahead with a provider that hands out a session per caller,
+     * such as the {@link PooledWebDriverProvider}.
+     *
+     * @param listingLookahead The number of listing pages fetched ahead, 0 to fetch each page when it is needed.
+     */
+    public void setListingLookahead(int listingLookahead) {
+        if (listingLookahead < 0) {
+            throw new IllegalArgumentException("Listing lookahead must not be negative");
+        }
+        this.listingLookahead = listingLookahead;
+    }
+
+    /**
+     * Sets the store that records each retailer's progress after every listing page. A retailer with a checkpoint
+     * continues from it: finished retailers are not scraped again and the others resume at their next page,
+     * skipping the URLs already processed. Clear the store to start a run from the first pages.
+     * A page is only recorded once its books are persisted. When some of them could not be saved, the checkpoint
+     * stays at that page for the rest of the run, with only the saved books processed, so a resumed run scrapes
+     * the missing ones again.
+     *
+     * @param checkpointStore The CheckpointStore instance, or null to keep no checkpoints.
+     */
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * Scrapes a retailer until its listing runs out, its item limit is reached or the thread is interrupted.
+     * Failed page loads are retried, and a retailer that keeps failing is paused by its circuit breaker.
+     *
+     * @param adapter The retailer to scrape.
+     * @return The number of books scraped.
+     * @throws IllegalStateException If the retailer kept failing after repeated pauses and was given up on.
+     */
+    public int scrape(RetailerAdapter adapter) {
+        PageReadiness pageReadiness = new PageReadiness(adapter.getSiteName(), readyTimeout, adapter.isWaitForNetworkIdle());
+        DetailPageExecutor detailPageExecutor = new DetailPageExecutor(adapter.getDetailParallelism(), DetailPageExecutor.DEFAULT_MAX_PER_HOST, virtualThreads);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(adapter.getSiteName(), failureThreshold, openDuration, CircuitBreaker.DEFAULT_MAX_TRIPS);
+        boolean skipUnchanged = incremental && crawlStateStore != null;
+        CheckpointStore.Checkpoint checkpoint = checkpointStore != null ? checkpointStore.get(adapter.getRetailer()) : null;
+        if (checkpoint != null && checkpoint.isFinished()) {
+            System.out.println(adapter.getSiteName() + " finished before the restart, " + checkpoint.getItemCount() + " books scraped");
+            return checkpoint.getItemCount();
+        }
+        // Books listed on the pages completed before a restart were already scraped
+        UrlFrontier frontier = new UrlFrontier(checkpoint != null ? checkpoint.getProcessedUrls() : Set.of());
+        int listedCount = checkpoint != null ? checkpoint.getListedCount() : 0; // Listing entries processed, the item limit applies to these
+        int itemCount = checkpoint != null ? checkpoint.getItemCount() : 0;
+        int skippedCount = 0;
+        int refreshedCount = 0;
+        int duplicateCount = 0;
+        int page = checkpoint != null ? checkpoint.getNextPage() : adapter.getFirstPage();
+        boolean finished = false;
+        if (checkpoint != null) {
+            System.out.println("Resuming " + adapter.getSiteName() + " at page " + page + " with " + itemCount + " books already scraped");
+        }
+        CompletableFuture<Void> persisted = CompletableFuture.completedFuture(null); // Completes once every page handed off is persisted
+        PageCheckpoints pageCheckpoints = checkpointStore != null ? new PageCheckpoints(adapter.getRetailer()) : null;
+        Deque<Future<List<ListingEntry>>> prefetchedListings = new ArrayDeque<>(); // The pages after the current one, in order
+        ExecutorService listingFetcher = listingLookahead > 0 && adapter.isPaginated()
+                ? Executors.newSingleThreadExecutor(task -> {
+                    Thread fetcher = new Thread(task, "listing-prefetch-" + adapter.getSiteName());
+                    fetcher.setDaemon(true);
+                    return fetcher;
+                })
+                : null;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (listedCount >= adapter.getMaxItems()) {
+                    System.out.println("Reached the maximum number of items: " + adapter.getMaxItems());
+                    finished = true;
+                    break;
+                }
+
+                List<ListingEntry> listing = prefetchedListings.isEmpty()
+                        ? fetchListing(adapter, pageReadiness, circuitBreaker, page)
+                        : awaitListing(adapter, prefetchedListings.poll(), page);
+                checkCircuit(adapter, circuitBreaker);
+                if (listing == null) {
+                    // Not the end of the listing, the checkpoint of the last page stays resumable
+                    System.out.println("Stopping " + adapter.getSiteName() + " at listing page " + page + " that could not be read");
+                    break;
+                }
+                if (listing.isEmpty()) {
+                    finished = true;
+                    break;
+                }
+                listing = numberFrom(listing, listedCount);
+                List<String> pageUrls = listing.stream().map(ListingEntry::getUrl).toList();
+                // Books that moved down onto this page, or are listed twice, were already handled in this run
+                int pageSize = listing.size();
+                listing = listing.stream().filter(entry -> frontier.add(entry.getUrl())).toList();
+                duplicateCount += pageSize - listing.size();
+                listing = listing.subList(0, Math.min(listing.size(), adapter.getMaxItems() - listedCount));
+                listedCount += listing.size();
+
+                // Fetch the next listing pages while this page's books are scraped
+                if (listingFetcher != null && listedCount < adapter.getMaxItems()) {
+                    for (int ahead = prefetchedListings.size() + 1; ahead <= listingLookahead; ahead++) {
+                        int nextPage = page + ahead;
+                        prefetchedListings.add(listingFetcher.submit(() -> fetchListing(adapter, pageReadiness, circuitBreaker, nextPage)));
+                    }
+                }
+
+                // Known books take their price from the listing card in price refresh mode
+                Set<String> refreshedUrls = priceRefresh ? refreshListingPrices(adapter, listing) : Set.of();
+                refreshedCount += refreshedUrls.size();
+
+                // Only pages that are new or look changed are revisited in incremental mode
+                Map<String, ListingEntry> due = new LinkedHashMap<>();
+                for (ListingEntry entry : listing) {
+                    if (refreshedUrls.contains(entry.getUrl())) {
+                        if (crawlStateStore != null) {
+                            crawlStateStore.recordListingPrice(entry);
+                        }
+                    } else if (!skipUnchanged || crawlStateStore.isDue(entry, refreshInterval)) {
+                        due.putIfAbsent(entry.getUrl(), entry);
+                    } else {
+                        skippedCount++;
+                    }
+                }
+
+                // Fetch the book pages in parallel
+                Map<String, PageFetch> fetches = new ConcurrentHashMap<>();
+                List<ScrapedItem> pageItems = detailPageExecutor.fetchAll(new ArrayList<>(due.keySet()),
+                        bookUrl -> scrapeDetailPage(adapter, pageReadiness, circuitBreaker, due.get(bookUrl), skipUnchanged, fetches));
+                itemCount += pageItems.size();
+
+                CompletableFuture<List<ScrapedItem>> saved;
+                try {
+                    saved = persist(adapter, pageItems, page);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                persisted = CompletableFuture.allOf(persisted, saved.thenAccept(savedItems -> recordFetches(savedItems, fetches)));
+
+                checkCircuit(adapter, circuitBreaker); // The books scraped before the retailer broke down are kept
+                if (pageCheckpoints != null && !Thread.currentThread().isInterrupted()) {
+                    pageCheckpoints.recordWhenSaved(saved, page, listedCount, itemCount, pageUrls, pageItems);
+                }
+                if (!adapter.isPaginated()) {
+                    finished = true;
+                    break;
+                }
+                page++;
+            }
+        } finally {
+            // Pages fetched past the end of the run are not needed
+            prefetchedListings.forEach(prefetched -> prefetched.cancel(true));
+            if (listingFetcher != null) {
+                listingFetcher.shutdownNow();
+            }
+            detailPageExecutor.close();
+            pageReadiness.printStats();
+            awaitPersisted(adapter, pageCheckpoints != null ? CompletableFuture.allOf(persisted, pageCheckpoints.recorded) : persisted);
+            if (crawlStateStore != null) {
+                crawlStateStore.save();
+            }
+        }
+        if (finished && pageCheckpoints != null) {
+            if (pageCheckpoints.unsavedPage == null) {
+                checkpointStore.recordFinished(adapter.getRetailer(), itemCount);
+            } else {
+                System.out.println(adapter.getSiteName() + " had books that could not be saved, a resumed run continues at page " + pageCheckpoints.unsavedPage);
+            }
+        }
+        if (duplicateCount > 0) {
+            System.out.println(adapter.getSiteName() + ": " + duplicateCount + " books listed more than once in the run and fetched once");
+        }
+        if (skipUnchanged || priceRefresh) {
+            System.out.println(adapter.getSiteName() + ": " + listedCount + " listed, " + refreshedCount + " prices refreshed from the listing, "
+                    + skippedCount + " unchanged and skipped, " + itemCount + " scraped");
+        }
+        return itemCount;
+    }
+
+    /**
+     * Hands a listing page's books to the writer threads, or persists them in a single batch when there is no queue.
+     *
+     * @return A future completed with the books that were persisted, once they are.
+     * @throws InterruptedException If the thread is interrupted while waiting for space in the queue.
+     */
+    private CompletableFuture<List<ScrapedItem>> persist(RetailerAdapter adapter, List<ScrapedItem> pageItems, int page) throws InterruptedException {
+        try {
+            if (writeBehindQueue != null) {
+                return writeBehindQueue.enqueueAll(pageItems);
+            }
+            productDao.saveAll(pageItems);
+            return CompletableFuture.completedFuture(pageItems);
+        } catch (InterruptedException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            System.out.println("Unable to save " + adapter.getSiteName() + " books from page: " + page);
+            ex.printStackTrace();
+            return CompletableFuture.completedFuture(List.of());
+        }
+    }
+
+    /**
+     * Records the fetches of the persisted books in the crawl state. Runs on the writer threads.
+     */
+    private void recordFetches(List<ScrapedItem> savedItems, Map<String, PageFetch> fetches) {
+        if (crawlStateStore == null) {
+            return;
+        }
+        for (ScrapedItem item : savedItems) {
+            PageFetch fetch = fetches.get(item.getUrl());
+            if (fetch != null) {
+                crawlStateStore.recordFetch(fetch.entry, item, fetch.etag, fetch.lastModified);
+            }
+        }
+    }
+
+    /**
+     * Waits until every page handed off in the run is persisted and its crawl state and checkpoint recorded.
+     */
+    private static void awaitPersisted(RetailerAdapter adapter, CompletableFuture<Void> persisted) {
+        try {
+            persisted.join();
+        } catch (CompletionException ex) {
+            System.out.println("Unable to record the progress of " + adapter.getSiteName() + " after saving");
+            ex.getCause().printStackTrace();
+        }
+    }
+
+    /**
+     * Loads a listing page and collects its entries, retrying failed loads. Runs on the calling thread
+     * or, with a listing lookahead, on the retailer's prefetch thread.
+     *
+     * @return The listing entries numbered from 1 within the page, empty when the listing has no more books,
+     * or null if the page could not be read.
+     */
+    private List<ListingEntry> fetchListing(RetailerAdapter adapter, PageReadiness pageReadiness, CircuitBreaker circuitBreaker, int page) {
+        try {
+            return retryPolicy.execute(circuitBreaker, () -> readListing(adapter, pageReadiness, page));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            System.out.println("Unable to read " + adapter.getSiteName() + " listing page: " + page);
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Waits for a listing page fetched ahead.
+     *
+     * @return The listing entries, empty when the listing has no more books, or null if the page could not be read.
+     */
+    private static List<ListingEntry> awaitListing(RetailerAdapter adapter, Future<List<ListingEntry>> prefetched, int page) {
+        try {
+            return prefetched.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            System.out.println("Unable to read " + adapter.getSiteName() + " listing page: " + page);
+            ex.getCause().printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Numbers the entries of a listing page after the entries of the earlier pages.
+     *
+     * @param listedCount Number of entries on earlier listing pages.
+     */
+    private static List<ListingEntry> numberFrom(List<ListingEntry> listing, int listedCount) {
+        List<ListingEntry> numbered = new ArrayList<>(listing.size());
+        for (ListingEntry entry : listing) {
+            numbered.add(new ListingEntry(entry.getUrl(), listedCount + entry.getPosition(), entry.getPrice(), entry.getTitle()));
+        }
+        return numbered;
+    }
+
+    /**
+     * Loads a listing page once and collects its entries.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the rate limiter.
+     */
+    private List<ListingEntry> readListing(RetailerAdapter adapter, PageReadiness pageReadiness, int page) throws InterruptedException {
+        List<ListingEntry> listing = new ArrayList<>();
+        WebDriverProvider provider = webDriverProviderFor(adapter);
+        WebDriver driver = provider.getWebDriver();
+        try {
+            // Wait for the book list to render, or for the page to show that the listing has ended
+            loadPage(driver, adapter.getListingUrl(page), () -> pageReadiness.awaitListingReady(driver, "listing",
+                    adapter.getListingSelector(), adapter.getListingEndSelector()));
+
+            System.out.println("Entering " + adapter.getSiteName() + " Website page: " + page);
+            List<String[]> cards = scriptedExtraction ? readCardsScripted(adapter, driver) : null;
+            if (cards != null) {
+                for (String[] card : cards) {
+                    if (card[0] == null) {
+                        System.out.println("Skipping a " + adapter.getSiteName() + " listing card without a book link on page: " + page);
+                        continue;
+                    }
+                    String title = card[2] != null && !card[2].isBlank() ? card[2].trim() : null;
+                    listing.add(new ListingEntry(card[0], listing.size() + 1, card[1] != null ? adapter.parsePrice(card[1]) : null, title));
+                }
+                return listing;
+            }
+
+            // Card by card when the page cannot be read by script
+            List<WebElement> bookList = driver.findElements(adapter.getListingSelector());
+            By linkSelector = adapter.getBookLinkSelector();
+            for (WebElement book : bookList) {
+                WebElement link;
+                try {
+                    link = linkSelector != null ? book.findElement(linkSelector) : book;
+                } catch (NoSuchElementException ex) {
+                    System.out.println("Skipping a " + adapter.getSiteName() + " listing card without a book link on page: " + page);
+                    continue;
+                }
+                listing.add(new ListingEntry(link.getAttribute("href"), listing.size() + 1, readListingPrice(adapter, book)));
+            }
+        } finally {
+            provider.releaseWebDriver(driver); // Listing session is no longer needed once the URLs are collected
+        }
+        return listing;
+    }
+
+    /**
+     * Reads all cards of a listing page in one script call.
+     *
+     * @return The cards, or null if the page cannot be read by script and the cards must be walked one by one.
+     */
+    private static List<String[]> readCardsScripted(RetailerAdapter adapter, WebDriver driver) {
+        try {
+            return DomScript.readCards(driver, adapter);
+        } catch (WebDriverException ex) {
+            System.out.println("Scripted listing read failed on " + adapter.getSiteName() + ", reading the cards one by one");
+            return null;
+        }
+    }
+
+    /**
+     * Gives up on a retailer whose circuit breaker opened too many times in a row.
+     *
+     * @throws IllegalStateException If the circuit breaker is exhausted.
+     */
+    private static void checkCircuit(RetailerAdapter adapter, CircuitBreaker circuitBreaker) {
+        if (circuitBreaker.isExhausted()) {
+            throw new IllegalStateException(adapter.getSiteName() + " kept failing after " + CircuitBreaker.DEFAULT_MAX_TRIPS + " pauses, giving up");
+        }
+    }
+
+    /**
+     * Updates the stored prices of the listed books that are already known.
+     *
+     * @return The URLs whose price was refreshed and need no book page visit.
+     */
+    private Set<String> refreshListingPrices(RetailerAdapter adapter, List<ListingEntry> listing) {
+        Map<String, Double> pricesByUrl = new LinkedHashMap<>();
+        for (ListingEntry entry : listing) {
+            if (entry.getPrice() != null) {
+                pricesByUrl.put(entry.getUrl(), entry.getPrice());
+            }
+        }
+        if (pricesByUrl.isEmpty() || productDao == null) {
+            return Set.of();
+        }
+        try {
+            return productDao.refreshPrices(adapter.getRetailer(), adapter.getCurrency(), pricesByUrl);
+        } catch (Exception ex) {
+            System.out.println("Unable to refresh " + adapter.getSiteName() + " prices from the listing, scraping the book pages instead");
+            ex.printStackTrace();
+            return Set.of();
+        }
+    }
+
+    /**
+     * Reads the price shown on a listing card.
+     *
+     * @return The price, or null if the adapter has no listing price selector or the card shows none.
+     */
+    private static Double readListingPrice(RetailerAdapter adapter, WebElement book) {
+        By priceSelector = adapter.getListingPriceSelector();
+        if (priceSelector == null) {
+            return null;
+        }
+        try {
+            return adapter.parsePrice(book.findElement(priceSelector).getText());
+        } catch (NoSuchElementException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Scrapes a single book page. Runs on the detail page workers, so it only uses thread safe state.
+     *
+     * @param conditional Whether static pages are requested conditionally, with the validators of the last fetch.
+     * @param fetches     Collects the fetch of each extracted book, to record in the crawl state once the book is persisted.
+     * @return The extracted book, or null if the page could not be read or is unchanged.
+     */
+    private ScrapedItem scrapeDetailPage(RetailerAdapter adapter, PageReadiness pageReadiness, CircuitBreaker circuitBreaker,
+                                         ListingEntry entry, boolean conditional, Map<String, PageFetch> fetches) {
+        String bookUrl = entry.getUrl();
+        StaticPage staticPage = fetchStatic(adapter, bookUrl, conditional);
+        if (staticPage != null && staticPage.isNotModified()) {
+            System.out.println("Unchanged since the last crawl: " + bookUrl);
+            crawlStateStore.recordNotModified(entry);
+            return null;
+        }
+
+        ScrapedItem item = staticPage != null ? extractStatic(adapter, staticPage, bookUrl) : null;
+        if (item != null) {
+            System.out.println("Read book from static HTML: " + bookUrl);
+        } else {
+            staticPage = null; // The browser fetch carries no HTTP validators
+            try {
+                item = retryPolicy.execute(circuitBreaker, () -> renderDetailPage(adapter, pageReadiness, bookUrl));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception ex) {
+                System.out.println("Error extracting " + adapter.getSiteName() + " book details from: " + bookUrl);
+                if (!circuitBreaker.isExhausted()) {
+                    ex.printStackTrace();
+                }
+                return null;
+            }
+        }
+        item.setUrl(bookUrl);
+        item.setRetailer(adapter.getRetailer());
+        item.setCurrency(adapter.getCurrency());
+        fetches.put(bookUrl, new PageFetch(entry, staticPage != null ? staticPage.getEtag() : null,
+                staticPage != null ? staticPage.getLastModified() : null));
+
+        // Displaying extracted information
+        System.out.println("Title: " + item.getTitle());
+        System.out.println("Author: " + item.getAuthor());
+        System.out.println("Description: " + item.getDescription());
+        System.out.println("Publication Date: " + item.getPublicationDate());
+        System.out.println("Image: " + item.getImageUrl());
+        System.out.println("Price: " + item.getPrice());
+        System.out.println("BookUrl: " + bookUrl);
+        return item;
+    }
+
+    /**
+     * Loads a book page in the browser once and extracts the book.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the rate limiter.
+     */
+    private ScrapedItem renderDetailPage(RetailerAdapter adapter, PageReadiness pageReadiness, String bookUrl) throws InterruptedException {
+        WebDriverProvider provider = webDriverProviderFor(adapter);
+        WebDriver pageDriver = provider.getWebDriver();
+        try {
+            loadPage(pageDriver, bookUrl, () -> pageReadiness.awaitReady(pageDriver, "detail", adapter.getDetailReadySelector())); // Wait for the book details to render
+            return extract(adapter, pageDriver);
+        } finally {
+            provider.releaseWebDriver(pageDriver);
+        }
+    }
+
+    /**
+     * Returns the provider of the browser sessions a retailer is rendered in.
+     *
+     * @return The script-free provider for retailers that do not need JavaScript, when there is one.
+     */
+    private WebDriverProvider webDriverProviderFor(RetailerAdapter adapter) {
+        return noScriptWebDriverProvider != null && !adapter.isJavaScriptRequired() ? noScriptWebDriverProvider : webDriverProvider;
+    }
+
+    /**
+     * Loads a page in the browser once its host's rate limit allows it and waits for it to render.
+     * The time until the page is ready is reported to the rate limiter, so a host that renders slowly
+     * or not at all is visited less often.
+     *
+     * @param awaitReady Waits for the loaded page to be ready, and tells whether it became ready in time.
+     * @throws InterruptedException If the thread is interrupted while waiting for the rate limiter.
+     * @throws TimeoutException     If the page did not become ready in time, so that the load is retried.
+     */
+    private void loadPage(WebDriver driver, String url, BooleanSupplier awaitReady) throws InterruptedException {
+        if (rateLimiter != null) {
+            rateLimiter.acquire(url);
+        }
+        long start = System.nanoTime();
+        driver.get(url);
+        boolean ready = awaitReady.getAsBoolean();
+        if (rateLimiter != null) {
+            rateLimiter.recordResponse(url, Duration.ofNanos(System.nanoTime() - start));
+        }
+        if (!ready) {
+            throw new TimeoutException("Page not ready: " + url);
+        }
+    }
+
+    /**
+     * Fetches a book page through the static HTML fast path.
+     *
+     * @return The page, or null if the fast path is disabled, failed or the adapter needs the browser.
+     */
+    private StaticPage fetchStatic(RetailerAdapter adapter, String bookUrl, boolean conditional) {
+        if (staticPageProvider == null || !adapter.isStaticPageSupported()) {
+            return null;
+        }
+        CrawlStateStore.CrawlState state = conditional ? crawlStateStore.get(bookUrl) : null;
+        try {
+            return state != null
+                    ? staticPageProvider.getPage(bookUrl, state.getEtag(), state.getLastModified())
+                    : staticPageProvider.getPage(bookUrl, null, null);
+        } catch (Exception ex) {
+            System.out.println("Static fetch failed, falling back to the browser for: " + bookUrl);
+            return null;
+        }
+    }
+
+    /**
+     * Extracts a book from a static page.
+     *
+     * @return The extracted item, or null if the adapter needs the browser for this page.
+     */
+    private static ScrapedItem extractStatic(RetailerAdapter adapter, StaticPage staticPage, String bookUrl) {
+        try {
+            return adapter.extractStatic(staticPage.getHtml());
+        } catch (Exception ex) {
+            System.out.println("Static extraction failed, falling back to the browser for: " + bookUrl);
+            return null;
+        }
+    }
+
+    /**
+     * Extracts the book from a rendered page: the embedded structured data in one round-trip,
+     * the adapter's selectors only for the fields it does not provide, all read by one script call when possible.
+     *
+     * @throws IllegalStateException If a required field is missing.
+     */
+    private ScrapedItem extract(RetailerAdapter adapter, WebDriver driver) {
+        ScrapedItem item = StructuredDataExtractor.extract(driver.getPageSource());
+        List<Field> missingFields = new ArrayList<>();
+        for (Field field : Field.values()) {
+            if (valueOf(item, field) == null) {
+                missingFields.add(field);
+            }
+        }
+
+        // One script call reads every remaining field, one lookup per field is the fallback
+        Map<Field, String> scriptedValues = scriptedExtraction && !missingFields.isEmpty() ? readScripted(adapter, driver, missingFields) : null;
+        for (Field field : missingFields) {
+            String value = scriptedValues != null ? readScripted(adapter, scriptedValues, field) : read(adapter, driver, field);
+            if (value == null) {
+                continue;
+            }
+            switch (field) {
+                case TITLE:
+                    item.setTitle(value);
+                    break;
+                case AUTHOR:
+                    item.setAuthor(value);
+                    break;
+                case DESCRIPTION:
+                    item.setDescription(value);
+                    break;
+                case PUBLICATION_DATE:
+                    item.setPublicationDate(adapter.parsePublicationDate(value));
+                    break;
+                case IMAGE_URL:
+                    item.setImageUrl(value);
+                    break;
+                default:
+                    item.setPrice(adapter.parsePrice(value));
+            }
+        }
+
+        // Retailer specific tidying applies to structured data and selector values alike
+        if (item.getTitle() != null) {
+            item.setTitle(adapter.clean(Field.TITLE, item.getTitle()));
+        }
+        if (item.getAuthor() != null) {
+            item.setAuthor(adapter.clean(Field.AUTHOR, item.getAuthor()));
+        }
+        if (item.getDescription() != null) {
+            item.setDescription(adapter.clean(Field.DESCRIPTION, item.getDescription()));
+        }
+        adapter.complete(item);
+
+        for (Field field : Field.values()) {
+            if (adapter.isRequired(field) && valueOf(item, field) == null) {
+                throw new IllegalStateException("Missing " + field + " on " + adapter.getSiteName() + " book page");
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Reads the given fields of a book page in one script call.
+     *
+     * @return The field values, or null if the page cannot be read by script and the fields must be looked up one by one.
+     */
+    private static Map<Field, String> readScripted(RetailerAdapter adapter, WebDriver driver, List<Field> fields) {
+        try {
+            return DomScript.readFields(driver, adapter, fields);
+        } catch (WebDriverException ex) {
+            System.out.println("Scripted extraction failed on " + adapter.getSiteName() + " book page, reading fields one by one");
+            return null;
+        }
+    }
+
+    /**
+     * Takes a field from the values read by script, treating a missing element like {@link #read(RetailerAdapter, WebDriver, Field)} does.
+     *
+     * @return The value, or null if the adapter has no selector or an optional element is missing.
+     * @throws NoSuchElementException If a required element is missing.
+     */
+    private static String readScripted(RetailerAdapter adapter, Map<Field, String> scriptedValues, Field field) {
+        String value = scriptedValues.get(field);
+        if (value == null && adapter.getSelector(field) != null) {
+            if (adapter.isRequired(field)) {
+                throw new NoSuchElementException("No element for " + field + " on " + adapter.getSiteName() + " book page: " + adapter.getSelector(field));
+            }
+            System.out.println(field + " not found on " + adapter.getSiteName() + " book page");
+        }
+        return value;
+    }
+
+    /**
+     * Reads a field through the adapter's selector.
+     *
+     * @return The text or attribute value, or null if the adapter has no selector or an optional element is missing.
+     */
+    private static String read(RetailerAdapter adapter, WebDriver driver, Field field) {
+        By selector = adapter.getSelector(field);
+        if (selector == null) {
+            return null;
+        }
+        try {
+            WebElement element = driver.findElement(selector);
+            String attribute = adapter.getAttribute(field);
+            return attribute != null ? element.getAttribute(attribute) : element.getText();
+        } catch (NoSuchElementException ex) {
+            if (adapter.isRequired(field)) {
+                throw ex;
+            }
+            System.out.println(field + " not found on " + adapter.getSiteName() + " book page");
+            return null;
+        }
+    }
+
+    private static Object valueOf(ScrapedItem item, Field field) {
+        switch (field) {
+            case TITLE:
+                return item.getTitle();
+            case AUTHOR:
+                return item.getAuthor();
+            case DESCRIPTION:
+                return item.getDescription();
+            case PUBLICATION_DATE:
+                return item.getPublicationDate();
+            case IMAGE_URL:
+                return item.getImageUrl();
+            default:
+                return item.getPrice();
+        }
+    }
+
+    /**
+     * The listing entry and HTTP validators of a book page fetch, kept until the book is persisted.
+     */
+    private static class PageFetch {
+        private final ListingEntry entry;
+        private final String etag;
+        private final String lastModified;
+
+        private PageFetch(ListingEntry entry, String etag, String lastModified) {
+            this.entry = entry;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Records a retailer's checkpoints in page order, each once the books of its page are persisted.
+     */
+    private class PageCheckpoints {
+        private final String retailer;
+        private CompletableFuture<Void> recorded = CompletableFuture.completedFuture(null); // The checkpoint of the last page handed off
+        private volatile Integer unsavedPage; // The first page with books that were not saved, where a resumed run continues
+
+        private PageCheckpoints(String retailer) {
+            this.retailer = retailer;
+        }
+
+        /**
+         * Records a listing page once its books are persisted, after the pages before it.
+         *
+         * @param listedCount Listing entries processed up to and including the page.
+         * @param itemCount   Books scraped up to and including the page.
+         */
+        private void recordWhenSaved(CompletableFuture<List<ScrapedItem>> saved, int page, int listedCount, int itemCount,
+                                     List<String> pageUrls, List<ScrapedItem> pageItems) {
+            recorded = recorded.thenCombine(saved, (previous, savedItems) -> savedItems).thenAccept(savedItems -> {
+                if (unsavedPage != null) {
+                    return; // The checkpoint stays at the first page with unsaved books
+                }
+                Set<String> unsavedUrls = new HashSet<>();
+                pageItems.forEach(item -> unsavedUrls.add(item.getUrl()));
+                savedItems.forEach(item -> unsavedUrls.remove(item.getUrl()));
+                if (unsavedUrls.isEmpty()) {
+                    checkpointStore.recordPage(retailer, page + 1, listedCount, itemCount, pageUrls);
+                    return;
+                }
+                unsavedPage = page;
+                List<String> savedUrls = pageUrls.stream().filter(url -> !unsavedUrls.contains(url)).toList();
+                checkpointStore.recordPage(retailer, page, listedCount - unsavedUrls.size(), itemCount - unsavedUrls.size(), savedUrls);
+            });
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookmatch.webscrapers;
+
+/**
+ * The response to a static page request: the HTML and the validators the server sent with it,
+ * or a "not modified" marker when a conditional request found the page unchanged.
+ */
+public class StaticPage {
+
+    private final String html;
+    private final String etag;
+    private final String lastModified;
+    private final boolean notModified;
+
+    /**
+     * Constructs a StaticPage.
+     *
+     * @param html         The HTML source, or null if the page was not modified.
+     * @param etag         The ETag response header, or null.
+     * @param lastModified The Last-Modified response header, or null.
+     * @param notModified  Whether the server answered 304 Not Modified.
+     */
+    public StaticPage(String html, String etag, String lastModified, boolean notModified) {
+        this.html = html;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.notModified = notModified;
+    }
+
+    /**
+     * Returns the HTML source of the page.
+     *
+     * @return The HTML, or null if the page was not modified.
+     */
+    public String getHtml() {
+        return html;
+    }
+
+    /**
+     * Returns the ETag the server sent for the page.
+     *
+     * @return The ETag, or null if none was sent.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Returns the Last-Modified date the server sent for the page.
+     *
+     * @return The Last-Modified header, or null if none was sent.
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns whether the page is unchanged since the validators sent with the request.
+     *
+     * @return True if the server answered 304 Not Modified.
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+}
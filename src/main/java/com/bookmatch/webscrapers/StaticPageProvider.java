@@ -0,0 +1,34 @@
+package com.bookmatch.webscrapers;
+
+import java.io.IOException;
+
+/**
+ * This interface represents a provider for fetching the static HTML of a page without a browser.
+ * It is the lightweight alternative to {@link WebDriverProvider} for retailers that serve
+ * their product data in the initial HTML response.
+ */
+public interface StaticPageProvider {
+
+    /**
+     * Fetches the raw HTML of a page.
+     *
+     * @param url The URL of the page to fetch.
+     * @return The HTML source of the page.
+     * @throws IOException If the page could not be fetched or did not return a successful response.
+     */
+    String getPageSource(String url) throws IOException;
+
+    /**
+     * Fetches a page conditionally, so an unchanged page costs a 304 response instead of a full download.
+     * Providers without conditional request support always fetch the full page.
+     *
+     * @param url          The URL of the page to fetch.
+     * @param etag         The ETag from the previous fetch, or null.
+     * @param lastModified The Last-Modified date from the previous fetch, or null.
+     * @return The page, or a not modified marker if the server reports it unchanged.
+     * @throws IOException If the page could not be fetched or did not return a successful response.
+     */
+    default StaticPage getPage(String url, String etag, String lastModified) throws IOException {
+        return new StaticPage(getPageSource(url), null, null, false);
+    }
+}
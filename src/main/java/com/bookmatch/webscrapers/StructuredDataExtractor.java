@@ -0,0 +1,269 @@
+package com.bookmatch.webscrapers;
+
+import com.bookmatch.models.ScrapedItem;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code StructuredDataExtractor} class reads book details from the structured data embedded in a page:
+ * schema.org JSON-LD blocks first, then the microdata of the page's Book or Product item for anything still missing.
+ * It works on the page source, so a whole book page is read with a single WebDriver round-trip
+ * and only the fields that are absent need a retailer specific XPath fallback.
+ */
+public class StructuredDataExtractor {
+
+    private static final Pattern JSON_LD_PATTERN = Pattern.compile(
+            "<script[^>]*type\\s*=\\s*[\"']application/ld\\+json[\"'][^>]*>(.*?)</script>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern PRICE_PATTERN = Pattern.compile("\\d+(?:[.,]\\d+)*");
+
+    private static final Json JSON = new Json();
+
+    private StructuredDataExtractor() {
+    }
+
+    /**
+     * Extracts the book details found in the structured data of a page.
+     * Fields that are not published as structured data are left {@code null}.
+     *
+     * @param pageSource The HTML source of the book page.
+     * @return A ScrapedItem holding the fields that were found.
+     */
+    public static ScrapedItem extract(String pageSource) {
+        ScrapedItem item = new ScrapedItem();
+        if (pageSource == null) {
+            return item;
+        }
+
+        Map<String, Object> product = findProductNode(pageSource);
+        if (product != null) {
+            item.setTitle(text(product.get("name")));
+            item.setAuthor(name(product.get("author")));
+            item.setDescription(text(product.get("description")));
+            item.setPublicationDate(parseIsoDate(text(product.get("datePublished"))));
+            item.setImageUrl(url(product.get("image")));
+            item.setIsbn(firstText(product.get("isbn"), product.get("gtin13")));
+            item.setPrice(parsePrice(offerPrice(product.get("offers"))));
+
+            // Books often publish the edition details under workExample
+            Object workExample = first(product.get("workExample"));
+            if (workExample instanceof Map) {
+                Map<?, ?> edition = (Map<?, ?>) workExample;
+                if (item.getIsbn() == null) {
+                    item.setIsbn(text(edition.get("isbn")));
+                }
+                if (item.getPublicationDate() == null) {
+                    item.setPublicationDate(parseIsoDate(text(edition.get("datePublished"))));
+                }
+                if (item.getPrice() == null) {
+                    item.setPrice(parsePrice(offerPrice(edition.get("offers"))));
+                }
+            }
+        }
+
+        // Microdata for anything the JSON-LD did not provide, read only from the product so that
+        // the names and prices of related books, reviews or the breadcrumb are not picked up
+        HtmlDocument document = new HtmlDocument(pageSource).itemscope("Book", "Product");
+        if (document == null) {
+            return item;
+        }
+        if (item.getTitle() == null) {
+            item.setTitle(document.itemprop("name"));
+        }
+        if (item.getAuthor() == null) {
+            item.setAuthor(document.itemprop("author"));
+        }
+        if (item.getDescription() == null) {
+            item.setDescription(document.itemprop("description"));
+        }
+        if (item.getPublicationDate() == null) {
+            item.setPublicationDate(parseIsoDate(document.itemprop("datePublished")));
+        }
+        if (item.getImageUrl() == null) {
+            item.setImageUrl(document.itemprop("image"));
+        }
+        if (item.getIsbn() == null) {
+            item.setIsbn(document.itemprop("isbn"));
+        }
+        if (item.getPrice() == null) {
+            item.setPrice(parsePrice(document.itemprop("price")));
+        }
+        return item;
+    }
+
+    /**
+     * Parses an ISO-8601 date, date-time or bare year as published in structured data.
+     *
+     * @param value The date text, e.g. "2023-05-11", "2023-05-11T00:00:00Z" or "2023".
+     * @return The parsed date, or {@code null} if the value is missing or malformed.
+     */
+    public static LocalDate parseIsoDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            if (trimmed.matches("\\d{4}")) {
+                return LocalDate.of(Integer.parseInt(trimmed), 1, 1);
+            }
+            if (trimmed.length() >= 10) {
+                return LocalDate.parse(trimmed.substring(0, 10));
+            }
+        } catch (DateTimeParseException ex) {
+            System.out.println("Unable to parse structured date: " + value);
+        }
+        return null;
+    }
+
+    /**
+     * Parses a price, ignoring currency symbols and codes. Either a dot or a comma may be the decimal separator:
+     * when both appear the last one is, and a lone separator followed by exactly three digits groups thousands.
+     *
+     * @param value The price text, e.g. "9.99", "£9.99", "EUR 9,99", "1,299.00" or "1.299,00 €".
+     * @return The parsed price, or {@code null} if no number was found.
+     */
+    public static Double parsePrice(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = PRICE_PATTERN.matcher(value);
+        if (!matcher.find()) {
+            return null;
+        }
+        String number = matcher.group();
+        int decimalSeparator = Math.max(number.lastIndexOf('.'), number.lastIndexOf(','));
+        if (decimalSeparator >= 0) {
+            char separator = number.charAt(decimalSeparator);
+            boolean grouping = number.indexOf(separator) != decimalSeparator // Repeated, e.g. "1,000,000"
+                    || (number.indexOf(separator == '.' ? ',' : '.') < 0 && number.length() - decimalSeparator - 1 == 3);
+            if (grouping) {
+                decimalSeparator = -1;
+            }
+        }
+        StringBuilder digits = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (Character.isDigit(c)) {
+                digits.append(c);
+            } else if (i == decimalSeparator) {
+                digits.append('.');
+            }
+        }
+        return Double.valueOf(digits.toString());
+    }
+
+    /**
+     * Finds the first JSON-LD node typed as a Book or Product.
+     *
+     * @param pageSource The HTML source of the page.
+     * @return The product node, or {@code null} if the page has none.
+     */
+    private static Map<String, Object> findProductNode(String pageSource) {
+        Matcher matcher = JSON_LD_PATTERN.matcher(pageSource);
+        while (matcher.find()) {
+            Object parsed;
+            try {
+                parsed = JSON.toType(matcher.group(1).trim(), Json.OBJECT_TYPE);
+            } catch (JsonException | IllegalArgumentException ex) {
+                continue; // Malformed blocks are common on retail pages, skip them
+            }
+            List<Map<String, Object>> nodes = new ArrayList<>();
+            collectNodes(parsed, nodes);
+            for (Map<String, Object> node : nodes) {
+                if (isProductType(node.get("@type"))) {
+                    return node;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Flattens top level arrays and {@code @graph} containers into a list of nodes.
+     */
+    @SuppressWarnings("unchecked")
+    private static void collectNodes(Object value, List<Map<String, Object>> nodes) {
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                collectNodes(element, nodes);
+            }
+        } else if (value instanceof Map) {
+            Map<String, Object> node = (Map<String, Object>) value;
+            nodes.add(node);
+            if (node.containsKey("@graph")) {
+                collectNodes(node.get("@graph"), nodes);
+            }
+        }
+    }
+
+    private static boolean isProductType(Object type) {
+        if (type instanceof Collection) {
+            return ((Collection<?>) type).stream().anyMatch(StructuredDataExtractor::isProductType);
+        }
+        return "Book".equals(type) || "Product".equals(type);
+    }
+
+    private static Object first(Object value) {
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            return list.isEmpty() ? null : list.get(0);
+        }
+        return value;
+    }
+
+    private static String text(Object value) {
+        Object single = first(value);
+        if (single == null || single instanceof Map) {
+            return null;
+        }
+        String text = HtmlDocument.decodeEntities(String.valueOf(single)).trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String firstText(Object... values) {
+        for (Object value : values) {
+            String text = text(value);
+            if (text != null) {
+                return text;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a person or organisation name, which may be a plain string or an object with a name.
+     */
+    private static String name(Object value) {
+        Object single = first(value);
+        return single instanceof Map ? text(((Map<?, ?>) single).get("name")) : text(single);
+    }
+
+    /**
+     * Reads an image URL, which may be a plain string or an ImageObject.
+     */
+    private static String url(Object value) {
+        Object single = first(value);
+        return single instanceof Map ? text(((Map<?, ?>) single).get("url")) : text(single);
+    }
+
+    /**
+     * Reads the price of an Offer or the low price of an AggregateOffer.
+     */
+    private static String offerPrice(Object offers) {
+        Object offer = first(offers);
+        if (!(offer instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> offerMap = (Map<?, ?>) offer;
+        return firstText(offerMap.get("price"), offerMap.get("lowPrice"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.bookmatch.webscrapers;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Remembers the book URLs one retailer has listed in the current run, so every book page is fetched at most once
+ * even when a bestseller list shifts between pages mid-crawl or a listing repeats itself. URLs are compared in
+ * canonical form: the scheme and host are lower-cased, default ports, fragments and tracking parameters are
+ * dropped, so the same book reached through differently tagged links counts once.
+ */
+public class UrlFrontier {
+
+    /** Query parameter prefixes that only track where a click came from. */
+    public static final List<String> TRACKING_PARAMETER_PREFIXES = List.of("utm_");
+
+    /** Query parameters that only track where a click came from. */
+    public static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "gclid", "gclsrc", "dclid", "fbclid", "msclkid", "mc_cid", "mc_eid", "_ga", "_gl", "ref", "ref_", "referrer",
+            "affiliate", "aff_id", "cmpid", "icid");
+
+    private final Set<String> seen = new HashSet<>();
+
+    /**
+     * Constructs an empty frontier.
+     */
+    public UrlFrontier() {
+    }
+
+    /**
+     * Constructs a frontier that already holds the given URLs, such as those processed before a restart.
+     *
+     * @param seenUrls The URLs to treat as already listed.
+     */
+    public UrlFrontier(Collection<String> seenUrls) {
+        for (String url : seenUrls) {
+            seen.add(canonicalize(url));
+        }
+    }
+
+    /**
+     * Records a URL as listed.
+     *
+     * @param url The URL in any form.
+     * @return True if the URL had not been listed before in this run.
+     */
+    public synchronized boolean add(String url) {
+        return seen.add(canonicalize(url));
+    }
+
+    /**
+     * Returns whether a URL was listed before in this run.
+     *
+     * @param url The URL in any form.
+     * @return True if the URL was listed.
+     */
+    public synchronized boolean contains(String url) {
+        return seen.contains(canonicalize(url));
+    }
+
+    /**
+     * Returns the number of distinct URLs listed.
+     *
+     * @return The number of URLs.
+     */
+    public synchronized int size() {
+        return seen.size();
+    }
+
+    /**
+     * Returns the canonical form of a URL: lower-case scheme and host, no default port, no fragment and
+     * no tracking parameters. The path and the remaining query parameters are kept as they are, in order.
+     *
+     * @param url The URL.
+     * @return The canonical URL, or the URL unchanged if it cannot be parsed.
+     */
+    public static String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return url;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            StringBuilder canonical = new StringBuilder(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                canonical.append(uri.getRawUserInfo()).append('@');
+            }
+            canonical.append(uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : uri.getRawAuthority());
+            int port = uri.getPort();
+            if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+                canonical.append(':').append(port);
+            }
+            canonical.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+
+            String query = uri.getRawQuery();
+            if (query != null) {
+                List<String> kept = new ArrayList<>();
+                for (String parameter : query.split("&")) {
+                    if (!parameter.isEmpty() && !isTrackingParameter(parameter)) {
+                        kept.add(parameter);
+                    }
+                }
+                if (!kept.isEmpty()) {
+                    canonical.append('?').append(String.join("&", kept));
+                }
+            }
+            return canonical.toString();
+        } catch (URISyntaxException ex) {
+            return url;
+        }
+    }
+
+    private static boolean isTrackingParameter(String parameter) {
+        int equals = parameter.indexOf('=');
+        String name = (equals < 0 ? parameter : parameter.substring(0, equals)).toLowerCase(Locale.ROOT);
+        if (TRACKING_PARAMETERS.contains(name)) {
+            return true;
+        }
+        for (String prefix : TRACKING_PARAMETER_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
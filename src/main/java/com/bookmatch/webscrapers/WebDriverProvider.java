@@ -13,4 +13,16 @@ public interface WebDriverProvider {
      * @return A configured instance of {@link WebDriver}.
      */
     WebDriver getWebDriver();
+
+    /**
+     * Hands a {@link WebDriver} obtained from {@link #getWebDriver()} back to the provider.
+     * Providers that do not reuse sessions simply quit the driver.
+     *
+     * @param driver The WebDriver instance that is no longer needed by the caller.
+     */
+    default void releaseWebDriver(WebDriver driver) {
+        if (driver != null) {
+            driver.quit();
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.BookIdentityCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+/**
+ * The BookIdentityCacheTest class contains JUnit tests for the {@link BookIdentityCache} class.
+ */
+public class BookIdentityCacheTest {
+
+    /**
+     * Tests that book keys ignore case and extra whitespace.
+     */
+    @Test
+    void testBookKeyIsNormalized() {
+        BookIdentityCache cache = new BookIdentityCache();
+        cache.putBook("The  Test Book ", "Jane Doe", 42, 0L);
+
+        Assertions.assertEquals(42, cache.getBookId("the test book", "JANE DOE"));
+        Assertions.assertNull(cache.getBookId("The Test Book", "John Roe"));
+    }
+
+    /**
+     * Tests that a price only counts as unchanged for the same URL, book and values.
+     */
+    @Test
+    void testPriceUnchanged() {
+        BookIdentityCache cache = new BookIdentityCache();
+        cache.putPrice("https://example.com/book", BookIdentityCache.priceFingerprint("The Test Book", "Jane Doe", 9.99, "cover.jpg", "Shop"));
+
+        Assertions.assertTrue(cache.isPriceUnchanged("https://example.com/book",
+                BookIdentityCache.priceFingerprint("the test book", "Jane Doe", 9.99, "cover.jpg", "Shop")));
+        Assertions.assertFalse(cache.isPriceUnchanged("https://example.com/book",
+                BookIdentityCache.priceFingerprint("The Test Book", "Jane Doe", 8.99, "cover.jpg", "Shop")));
+        Assertions.assertFalse(cache.isPriceUnchanged("https://example.com/book",
+                BookIdentityCache.priceFingerprint("Another Book", "Jane Doe", 9.99, "cover.jpg", "Shop")));
+        Assertions.assertFalse(cache.isPriceUnchanged("https://example.com/other",
+                BookIdentityCache.priceFingerprint("The Test Book", "Jane Doe", 9.99, "cover.jpg", "Shop")));
+    }
+
+    /**
+     * Tests that a change to any book detail changes the fingerprint, and that missing and empty values differ.
+     */
+    @Test
+    void testBookUnchanged() {
+        BookIdentityCache cache = new BookIdentityCache();
+        LocalDate published = LocalDate.of(2020, 1, 1);
+        cache.putBook("The Test Book", "Jane Doe", 42, BookIdentityCache.bookFingerprint("The Test Book", "Jane Doe", "A story.", published));
+
+        Assertions.assertTrue(cache.isBookUnchanged("The Test Book", "Jane Doe",
+                BookIdentityCache.bookFingerprint("The Test Book", "Jane Doe", "A story.", published)));
+        Assertions.assertFalse(cache.isBookUnchanged("The Test Book", "Jane Doe",
+                BookIdentityCache.bookFingerprint("The Test Book", "Jane Doe", "A new story.", published)));
+        Assertions.assertFalse(cache.isBookUnchanged("The Test Book", "Jane Doe",
+                BookIdentityCache.bookFingerprint("The Test Book", "Jane Doe", "A story.", published.plusDays(1))));
+        Assertions.assertNotEquals(BookIdentityCache.bookFingerprint("Title", "Author", null, null),
+                BookIdentityCache.bookFingerprint("Title", "Author", "", null));
+    }
+
+    /**
+     * Tests that the least recently used entry is evicted once the cache is full.
+     */
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        BookIdentityCache cache = new BookIdentityCache(2);
+        cache.putBook("First", "Author", 1, 0L);
+        cache.putBook("Second", "Author", 2, 0L);
+        cache.getBookId("First", "Author"); // Second is now the least recently used
+        cache.putBook("Third", "Author", 3, 0L);
+
+        Assertions.assertEquals(2, cache.getBookCount());
+        Assertions.assertEquals(1, cache.getBookId("First", "Author"));
+        Assertions.assertNull(cache.getBookId("Second", "Author"));
+        Assertions.assertEquals(3, cache.getBookId("Third", "Author"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.BrowserProfile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BrowserProfileTest class contains JUnit tests for the {@link BrowserProfile} class.
+ */
+public class BrowserProfileTest {
+
+    /**
+     * Tests that the default profile blocks images, fonts and trackers but keeps stylesheets and JavaScript.
+     */
+    @Test
+    void testDefaultPreferences() {
+        Map<String, Object> preferences = new BrowserProfile().getPreferences();
+
+        Assertions.assertEquals(2, preferences.get("permissions.default.image"));
+        Assertions.assertEquals(false, preferences.get("gfx.downloadable_fonts.enabled"));
+        Assertions.assertEquals(true, preferences.get("privacy.trackingprotection.enabled"));
+        Assertions.assertEquals(2, preferences.get("network.proxy.type"));
+        Assertions.assertFalse(preferences.containsKey("permissions.default.stylesheet"));
+        Assertions.assertFalse(preferences.containsKey("javascript.enabled"));
+
+        String autoConfigUrl = (String) preferences.get("network.proxy.autoconfig_url");
+        String script = new String(Base64.getDecoder().decode(autoConfigUrl.substring(autoConfigUrl.indexOf(',') + 1)), StandardCharsets.UTF_8);
+        Assertions.assertEquals(new BrowserProfile().getProxyAutoConfig(), script);
+        Assertions.assertTrue(script.contains("\"doubleclick.net\""));
+    }
+
+    /**
+     * Tests that a script-free copy keeps the other settings and that an empty host list needs no proxy script.
+     */
+    @Test
+    void testNoScriptCopyWithoutBlockedHosts() {
+        BrowserProfile profile = new BrowserProfile();
+        profile.setBlockImages(false);
+        profile.setBlockedHosts(List.of());
+
+        Map<String, Object> preferences = profile.withJavaScriptEnabled(false).getPreferences();
+
+        Assertions.assertEquals(false, preferences.get("javascript.enabled"));
+        Assertions.assertFalse(preferences.containsKey("permissions.default.image"));
+        Assertions.assertFalse(preferences.containsKey("network.proxy.type"));
+        Assertions.assertFalse(profile.getPreferences().containsKey("javascript.enabled"));
+    }
+}
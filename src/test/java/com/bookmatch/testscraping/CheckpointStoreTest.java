@@ -0,0 +1,56 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.CheckpointStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The CheckpointStoreTest class contains JUnit tests for the {@link CheckpointStore} class.
+ */
+public class CheckpointStoreTest {
+
+    /**
+     * Tests that every recorded page is saved at once and survives a reload, processed URLs included.
+     */
+    @Test
+    void testRecordPageAndReload(@TempDir Path dir) {
+        Path file = dir.resolve("checkpoint.tsv");
+        CheckpointStore store = new CheckpointStore(file);
+        store.recordPage("Example.com", 2, 2, 2, List.of("https://shop.example.com/book/1", "https://shop.example.com/book/2"));
+        store.recordPage("Example.com", 3, 3, 2, List.of("https://shop.example.com/book/3"));
+        store.recordFinished("Other.com", 40);
+
+        CheckpointStore reloaded = new CheckpointStore(file);
+        reloaded.load();
+
+        CheckpointStore.Checkpoint checkpoint = reloaded.get("Example.com");
+        Assertions.assertEquals(3, checkpoint.getNextPage());
+        Assertions.assertEquals(3, checkpoint.getListedCount());
+        Assertions.assertEquals(2, checkpoint.getItemCount());
+        Assertions.assertFalse(checkpoint.isFinished());
+        Assertions.assertEquals(Set.of("https://shop.example.com/book/1", "https://shop.example.com/book/2", "https://shop.example.com/book/3"),
+                checkpoint.getProcessedUrls());
+        Assertions.assertTrue(reloaded.get("Other.com").isFinished());
+        Assertions.assertEquals(40, reloaded.get("Other.com").getItemCount());
+    }
+
+    /**
+     * Tests that clearing the store forgets every retailer, also in the saved file.
+     */
+    @Test
+    void testClear(@TempDir Path dir) {
+        Path file = dir.resolve("checkpoint.tsv");
+        CheckpointStore store = new CheckpointStore(file);
+        store.recordPage("Example.com", 2, 20, 18, List.of("https://shop.example.com/book/1"));
+        store.clear();
+
+        CheckpointStore reloaded = new CheckpointStore(file);
+        reloaded.load();
+        Assertions.assertNull(reloaded.get("Example.com"));
+    }
+}
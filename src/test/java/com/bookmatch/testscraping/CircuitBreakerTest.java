@@ -0,0 +1,54 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.CircuitBreaker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * The CircuitBreakerTest class contains JUnit tests for the {@link CircuitBreaker} class.
+ */
+public class CircuitBreakerTest {
+
+    /**
+     * Tests that the breaker opens after the failure threshold, lets one trial through after the pause
+     * and closes again when the trial succeeds.
+     */
+    @Test
+    void testOpenHalfOpenClose() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("Example", 2, Duration.ofMillis(300), 3);
+
+        circuitBreaker.recordFailure();
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+
+        Thread.sleep(350);
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        Assertions.assertFalse(circuitBreaker.tryAcquire()); // Only one trial at a time
+        circuitBreaker.recordSuccess();
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    /**
+     * Tests that failed trials reopen the breaker for longer each time until it is exhausted.
+     */
+    @Test
+    void testFailedTrialsExhaustTheBreaker() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("Example", 1, Duration.ofMillis(100), 2);
+
+        circuitBreaker.recordFailure();
+        Assertions.assertFalse(circuitBreaker.isExhausted());
+        Thread.sleep(150);
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.recordFailure();
+        Assertions.assertTrue(circuitBreaker.getRemainingPause().toMillis() > 100);
+        Assertions.assertTrue(circuitBreaker.isExhausted());
+
+        Thread.sleep(250);
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+    }
+}
@@ -0,0 +1,39 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.ConnectionPoolMetrics;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ConnectionPoolMetricsTest class contains JUnit tests for the {@link ConnectionPoolMetrics} class.
+ */
+public class ConnectionPoolMetricsTest {
+
+    /**
+     * Tests that acquire times, usage times and timeouts reported by the pool are recorded.
+     */
+    @Test
+    void testRecordsPoolEvents() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        IMetricsTracker tracker = metrics.create("test", new PoolStats(0) {
+            @Override
+            protected void update() {
+            }
+        });
+
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(2));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(4));
+        tracker.recordConnectionUsageMillis(15);
+        tracker.recordConnectionTimeout();
+
+        Assertions.assertEquals(2, metrics.getAcquireMicros().getCount());
+        Assertions.assertEquals(3000.0, metrics.getAcquireMicros().getAverage());
+        Assertions.assertEquals(4000, metrics.getAcquireMicros().getMax());
+        Assertions.assertEquals(15, metrics.getUsageMillis().getMax());
+        Assertions.assertEquals(1, metrics.getTimeoutCount());
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.models.ScrapedItem;
+import com.bookmatch.webscrapers.CrawlStateStore;
+import com.bookmatch.webscrapers.ListingEntry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * The CrawlStateStoreTest class contains JUnit tests for the {@link CrawlStateStore} class.
+ */
+public class CrawlStateStoreTest {
+
+    private static final String URL = "https://shop.example.com/book/1";
+
+    /**
+     * Tests that a page is only due again when it is new, moved, changed price or reached its refresh interval.
+     */
+    @Test
+    void testIsDue(@TempDir Path dir) {
+        CrawlStateStore store = new CrawlStateStore(dir.resolve("state.tsv"));
+        Duration week = Duration.ofDays(7);
+        Assertions.assertTrue(store.isDue(new ListingEntry(URL, 3, 9.99), week), "New pages are due.");
+
+        store.recordFetch(new ListingEntry(URL, 3, 9.99), item(9.99), "\"v1\"", null);
+
+        Assertions.assertFalse(store.isDue(new ListingEntry(URL, 3, 9.99), week), "Unchanged entries are skipped.");
+        Assertions.assertFalse(store.isDue(new ListingEntry(URL, 3, null), week), "Cards without a price only compare positions.");
+        Assertions.assertTrue(store.isDue(new ListingEntry(URL, 4, 9.99), week), "Moved entries are due.");
+        Assertions.assertTrue(store.isDue(new ListingEntry(URL, 3, 8.99), week), "Repriced entries are due.");
+        Assertions.assertTrue(store.isDue(new ListingEntry(URL, 3, 9.99), Duration.ZERO), "Stale entries are due.");
+    }
+
+    /**
+     * Tests that the state survives a save and load, and that refetching reports content changes.
+     */
+    @Test
+    void testSaveAndLoad(@TempDir Path dir) {
+        Path file = dir.resolve("state.tsv");
+        CrawlStateStore store = new CrawlStateStore(file);
+        Assertions.assertTrue(store.recordFetch(new ListingEntry(URL, 3, null), item(9.99), "\"v1\"", "Tue, 01 Oct 2024 10:00:00 GMT"));
+        store.recordFetch(new ListingEntry("https://shop.example.com/book/2", 4, null), item(null), null, null);
+        store.save();
+
+        CrawlStateStore reloaded = new CrawlStateStore(file);
+        reloaded.load();
+
+        Assertions.assertEquals(2, reloaded.size());
+        CrawlStateStore.CrawlState state = reloaded.get(URL);
+        Assertions.assertEquals("\"v1\"", state.getEtag());
+        Assertions.assertEquals("Tue, 01 Oct 2024 10:00:00 GMT", state.getLastModified());
+        Assertions.assertEquals(9.99, state.getLastPrice());
+        Assertions.assertEquals(3, state.getPosition());
+        Assertions.assertEquals(CrawlStateStore.contentHash(item(9.99)), state.getContentHash());
+        Assertions.assertNull(reloaded.get("https://shop.example.com/book/2").getLastPrice());
+
+        Assertions.assertFalse(reloaded.recordFetch(new ListingEntry(URL, 3, null), item(9.99), null, null), "Same content is not a change.");
+        Assertions.assertTrue(reloaded.recordFetch(new ListingEntry(URL, 3, null), item(7.99), null, null), "A new price is a change.");
+    }
+
+    private static ScrapedItem item(Double price) {
+        ScrapedItem item = new ScrapedItem();
+        item.setTitle("The Duke");
+        item.setAuthor("Jane Doe");
+        item.setDescription("A story");
+        item.setPublicationDate(LocalDate.of(2020, 5, 1));
+        item.setImageUrl("https://img.example.com/1.jpg");
+        item.setPrice(price);
+        item.setRetailer("Example.com");
+        return item;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.DetailPageExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The DetailPageExecutorTest class contains JUnit tests for the {@link DetailPageExecutor} class.
+ */
+public class DetailPageExecutorTest {
+
+    /**
+     * Tests that results come back in URL order and that failed pages are left out.
+     */
+    @Test
+    void testResultsKeepUrlOrder() {
+        List<String> urls = List.of("https://a.example.com/1", "https://a.example.com/2", "https://a.example.com/3", "https://a.example.com/4");
+
+        try (DetailPageExecutor executor = new DetailPageExecutor(3)) {
+            List<String> results = executor.fetchAll(urls, url -> {
+                if (url.endsWith("/3")) {
+                    return null; // Page could not be read
+                }
+                if (url.endsWith("/4")) {
+                    throw new IllegalStateException("Broken page");
+                }
+                return url.substring(url.lastIndexOf('/') + 1);
+            });
+
+            Assertions.assertEquals(List.of("1", "2"), results);
+        }
+    }
+
+    /**
+     * Tests that no more than the per-host cap of pages are fetched at once from one host.
+     */
+    @Test
+    void testPerHostConcurrencyCap() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            urls.add("https://capped.example.com/book/" + i);
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (DetailPageExecutor executor = new DetailPageExecutor(6, 2)) {
+            List<String> results = executor.fetchAll(urls, url -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return url;
+            });
+
+            Assertions.assertEquals(12, results.size());
+            Assertions.assertTrue(maxRunning.get() <= 2, "At most two pages should be fetched from the host at once.");
+            Assertions.assertTrue(maxRunning.get() > 1, "Pages should be fetched in parallel.");
+        }
+    }
+
+    /**
+     * Tests that virtual thread mode runs every fetch on a virtual thread, bounded only by the per-host cap.
+     */
+    @Test
+    void testVirtualThreadsRespectHostCap() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            urls.add("https://virtual.example.com/book/" + i);
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger platformThreads = new AtomicInteger();
+
+        try (DetailPageExecutor executor = new DetailPageExecutor(1, 3, true)) {
+            List<String> results = executor.fetchAll(urls, url -> {
+                if (!Thread.currentThread().isVirtual()) {
+                    platformThreads.incrementAndGet();
+                }
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return url;
+            });
+
+            Assertions.assertEquals(urls, results);
+            Assertions.assertEquals(0, platformThreads.get(), "Every fetch should run on a virtual thread.");
+            Assertions.assertTrue(maxRunning.get() <= 3, "At most three pages should be fetched from the host at once.");
+        }
+    }
+}
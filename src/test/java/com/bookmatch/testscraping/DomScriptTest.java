@@ -0,0 +1,125 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.DomScript;
+import com.bookmatch.webscrapers.RetailerAdapter;
+import com.bookmatch.webscrapers.RetailerAdapter.Field;
+import com.bookmatch.webscrapers.WaterStonesScraper;
+import com.bookmatch.webscrapers.WebDriverProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * The DomScriptTest class contains JUnit tests for the {@link DomScript} class.
+ */
+public class DomScriptTest {
+
+    /**
+     * Tests that a retailer's selectors are sent to the page as one batch and the results mapped back to fields,
+     * with missing elements reported as null.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReadFieldsInOneCall() {
+        WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        Map<String, Object> values = new HashMap<>();
+        values.put("TITLE", "A Book");
+        values.put("IMAGE_URL", "https://img.example.com/a.jpg");
+        values.put("PRICE", null);
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any())).thenReturn(values);
+        RetailerAdapter adapter = new WaterStonesScraper(mock(WebDriverProvider.class));
+
+        Map<Field, String> fields = DomScript.readFields(driver, adapter, List.of(Field.TITLE, Field.IMAGE_URL, Field.PRICE));
+
+        Assertions.assertEquals("A Book", fields.get(Field.TITLE));
+        Assertions.assertEquals("https://img.example.com/a.jpg", fields.get(Field.IMAGE_URL));
+        Assertions.assertTrue(fields.containsKey(Field.PRICE));
+        Assertions.assertNull(fields.get(Field.PRICE));
+
+        ArgumentCaptor<Object> specs = ArgumentCaptor.forClass(Object.class);
+        verify((JavascriptExecutor) driver, times(1)).executeScript(anyString(), specs.capture());
+        List<List<String>> sent = (List<List<String>>) specs.getValue();
+        Assertions.assertEquals(3, sent.size());
+        Assertions.assertEquals("src", sent.get(1).get(3));
+        Assertions.assertEquals(adapter.getSelector(Field.TITLE).toString(), "By." + cssOrOther(sent.get(0)));
+    }
+
+    /**
+     * Tests that drivers without script support and selectors without a script equivalent are left to per-field lookups.
+     */
+    @Test
+    void testFallbackCases() {
+        RetailerAdapter adapter = mock(RetailerAdapter.class);
+        when(adapter.getSelector(Field.TITLE)).thenReturn(By.linkText("Title"));
+        WebDriver scriptingDriver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+
+        Assertions.assertNull(DomScript.readFields(mock(WebDriver.class), adapter, List.of(Field.TITLE)));
+        Assertions.assertNull(DomScript.readFields(scriptingDriver, adapter, List.of(Field.TITLE)));
+        verify((JavascriptExecutor) scriptingDriver, never()).executeScript(anyString(), any());
+    }
+
+    /**
+     * Tests that all listing cards come back from one script call as link, price and title rows,
+     * with the card, link and price selectors sent as script lookups.
+     */
+    @Test
+    void testReadCardsInOneCall() {
+        WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any(), any(), any())).thenReturn(List.of(
+                Arrays.asList("https://shop.example.com/book/1", "£6.00", "Book One"),
+                Arrays.asList(null, null, null)));
+        RetailerAdapter adapter = mock(RetailerAdapter.class);
+        when(adapter.getListingSelector()).thenReturn(By.className("card"));
+        when(adapter.getBookLinkSelector()).thenReturn(By.tagName("a"));
+        when(adapter.getListingPriceSelector()).thenReturn(By.cssSelector(".price"));
+
+        List<String[]> cards = DomScript.readCards(driver, adapter);
+
+        Assertions.assertEquals(2, cards.size());
+        Assertions.assertArrayEquals(new String[]{"https://shop.example.com/book/1", "£6.00", "Book One"}, cards.get(0));
+        Assertions.assertArrayEquals(new String[3], cards.get(1));
+        verify((JavascriptExecutor) driver, times(1)).executeScript(anyString(),
+                eq(List.of("class", "card")), eq(List.of("tag", "a")), eq(List.of("css", ".price")));
+    }
+
+    /**
+     * Tests that listing cards whose selectors have no script equivalent are left to per-card lookups.
+     */
+    @Test
+    void testReadCardsFallback() {
+        WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        RetailerAdapter adapter = mock(RetailerAdapter.class);
+        when(adapter.getListingSelector()).thenReturn(By.className("card"));
+        when(adapter.getBookLinkSelector()).thenReturn(By.partialLinkText("More"));
+
+        Assertions.assertNull(DomScript.readCards(mock(WebDriver.class), adapter));
+        Assertions.assertNull(DomScript.readCards(driver, adapter));
+        verify((JavascriptExecutor) driver, never()).executeScript(anyString(), any(Object[].class));
+    }
+
+    private static String cssOrOther(List<String> spec) {
+        switch (spec.get(1)) {
+            case "css":
+                return "cssSelector: " + spec.get(2);
+            case "class":
+                return "className: " + spec.get(2);
+            case "tag":
+                return "tagName: " + spec.get(2);
+            default:
+                return spec.get(1) + ": " + spec.get(2);
+        }
+    }
+}
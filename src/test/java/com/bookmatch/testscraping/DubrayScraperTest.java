@@ -2,9 +2,14 @@ package com.bookmatch.testscraping;
 
 import com.bookmatch.webscrapers.DubrayScraper;
 import com.bookmatch.ProductDao;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.openqa.selenium.WebDriver;
 import com.bookmatch.webscrapers.FirefoxWebDriverProvider;
+import com.bookmatch.webscrapers.RetryPolicy;
+import com.bookmatch.webscrapers.ScrapingEngine;
+
+import java.time.Duration;
 
 import static org.mockito.Mockito.*;
 
@@ -27,8 +32,14 @@ public class DubrayScraperTest {
         DubrayScraper dubrayScraper = new DubrayScraper(mockWebDriverProvider);
         dubrayScraper.setProductDao(mockProductDao);
 
+        // The mocked browser never shows a listing, so give up on it quickly
+        ScrapingEngine scrapingEngine = dubrayScraper.getScrapingEngine();
+        scrapingEngine.setReadyTimeout(Duration.ofMillis(100));
+        scrapingEngine.setRetryPolicy(new RetryPolicy(1, Duration.ZERO, Duration.ZERO));
+        dubrayScraper.setScrapingEngine(scrapingEngine);
+
         // Running the scraper
-        dubrayScraper.start();
+        Assertions.assertEquals(0, dubrayScraper.scrape());
 
         // Verifying interactions
         verify(mockWebDriverProvider, atLeastOnce()).getWebDriver();
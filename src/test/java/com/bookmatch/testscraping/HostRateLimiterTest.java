@@ -0,0 +1,70 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.HostRateLimiter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * The HostRateLimiterTest class contains JUnit tests for the {@link HostRateLimiter} class.
+ */
+public class HostRateLimiterTest {
+
+    /**
+     * Tests that a host gets its burst at once and then one request per interval, while other hosts are not held up.
+     */
+    @Test
+    void testTokenBucketPerHost() throws InterruptedException {
+        HostRateLimiter rateLimiter = new HostRateLimiter(20, 2);
+
+        long start = System.nanoTime();
+        rateLimiter.acquire("https://a.example.com/1");
+        rateLimiter.acquire("https://a.example.com/2");
+        rateLimiter.acquire("https://b.example.com/1");
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofMillis(40).toNanos());
+
+        rateLimiter.acquire("https://a.example.com/3");
+        rateLimiter.acquire("https://a.example.com/4");
+        Assertions.assertTrue(System.nanoTime() - start >= Duration.ofMillis(90).toNanos());
+    }
+
+    /**
+     * Tests that throttled and slow responses lower a host's rate and normal responses raise it back to the ceiling.
+     */
+    @Test
+    void testAdaptiveBackoff() throws InterruptedException {
+        HostRateLimiter rateLimiter = new HostRateLimiter(2, 1);
+        rateLimiter.setSlowResponse(Duration.ofSeconds(1));
+        String url = "https://busy.example.com/book";
+
+        rateLimiter.recordThrottled(url, Duration.ofMillis(100));
+        Assertions.assertEquals(1.0, rateLimiter.getRate(url), 1e-9);
+        rateLimiter.recordResponse(url, Duration.ofSeconds(2));
+        Assertions.assertEquals(0.8, rateLimiter.getRate(url), 1e-9);
+
+        long start = System.nanoTime();
+        rateLimiter.acquire(url);
+        Assertions.assertTrue(System.nanoTime() - start >= Duration.ofMillis(90).toNanos()); // Retry-After is honoured
+
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.recordResponse(url, Duration.ofMillis(100));
+        }
+        Assertions.assertEquals(2.0, rateLimiter.getRate(url), 1e-9);
+    }
+
+    /**
+     * Tests that robots.txt crawl delays are read for all user agents and cap the host's rate.
+     */
+    @Test
+    void testCrawlDelay() throws InterruptedException {
+        String robotsTxt = "User-agent: Googlebot\nCrawl-delay: 1\n\nUser-agent: bingbot\nUser-agent: *\nDisallow: /cart # checkout\nCrawl-delay: 2.5\n";
+        Assertions.assertEquals(Duration.ofMillis(2500), HostRateLimiter.parseCrawlDelay(robotsTxt));
+        Assertions.assertNull(HostRateLimiter.parseCrawlDelay("User-agent: *\nDisallow: /cart\n"));
+
+        HostRateLimiter rateLimiter = new HostRateLimiter();
+        rateLimiter.setRobotsProvider(url -> url.endsWith("/robots.txt") ? robotsTxt : "");
+        rateLimiter.acquire("https://polite.example.com/book/1");
+        Assertions.assertEquals(0.4, rateLimiter.getRate("https://polite.example.com/book/2"), 1e-9);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.HtmlDocument;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The HtmlDocumentTest class contains JUnit tests for the {@link HtmlDocument} class.
+ */
+public class HtmlDocumentTest {
+
+    private static final String HTML = "<html><head>"
+            + "<meta property=\"og:image\" content=\"https://example.com/cover.jpg\">"
+            + "<meta itemprop='datePublished' content='2023-05-11'>"
+            + "</head><body>"
+            + "<h1 id=\"scope_book_title\" class=\"title\">The Test Book (Paperback)</h1>"
+            + "<span itemprop=\"author\"><a href=\"/author\">Jane  Doe</a></span>"
+            + "<img id=\"scope_book_image\" src=\"https://example.com/cover.jpg\">"
+            + "<b itemprop=\"price\" content=\"9.99\">&pound;9.99</b>"
+            + "<p itemprop=\"description\">Love &amp; loss</p>"
+            + "</body></html>";
+
+    /**
+     * Tests reading microdata values from content attributes and element text.
+     */
+    @Test
+    void testItemprop() {
+        HtmlDocument document = new HtmlDocument(HTML);
+
+        Assertions.assertEquals("2023-05-11", document.itemprop("datePublished"));
+        Assertions.assertEquals("9.99", document.itemprop("price"));
+        Assertions.assertEquals("Jane Doe", document.itemprop("author"));
+        Assertions.assertEquals("Love & loss", document.itemprop("description"));
+        Assertions.assertNull(document.itemprop("isbn"));
+    }
+
+    /**
+     * Tests that malformed numeric entities are kept as they are instead of failing the read.
+     */
+    @Test
+    void testMalformedEntityIsKept() {
+        HtmlDocument document = new HtmlDocument("<p itemprop=\"description\">Caf&#233; &#12a; &#99999999999; &amp; more</p>");
+
+        Assertions.assertEquals("Café &#12a; &#99999999999; & more", document.itemprop("description"));
+    }
+
+    /**
+     * Tests that a microdata item is read up to the end of its own element, including nested elements of the same name.
+     */
+    @Test
+    void testItemscope() {
+        HtmlDocument document = new HtmlDocument("<div itemscope itemtype='https://schema.org/Offer'><b itemprop='price'>1</b></div>"
+                + "<div itemscope itemtype=\"https://schema.org/Book\"><div><b itemprop='price'>2</b></div><i itemprop='isbn'>3</i></div>"
+                + "<b itemprop='author'>4</b>");
+
+        HtmlDocument book = document.itemscope("Book", "Product");
+
+        Assertions.assertEquals("2", book.itemprop("price"));
+        Assertions.assertEquals("3", book.itemprop("isbn"));
+        Assertions.assertNull(book.itemprop("author"));
+        Assertions.assertNull(document.itemscope("Movie"));
+    }
+
+    /**
+     * Tests locating elements by id and reading their text and attributes.
+     */
+    @Test
+    void testTextAndAttribute() {
+        HtmlDocument document = new HtmlDocument(HTML);
+
+        Assertions.assertEquals("The Test Book (Paperback)", document.text("id", "scope_book_title"));
+        Assertions.assertEquals("https://example.com/cover.jpg", document.attribute("id", "scope_book_image", "src"));
+        Assertions.assertEquals("https://example.com/cover.jpg", document.meta("og:image"));
+    }
+}
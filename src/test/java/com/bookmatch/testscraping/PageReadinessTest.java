@@ -0,0 +1,87 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.PageReadiness;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * The PageReadinessTest class contains JUnit tests for the {@link PageReadiness} class.
+ */
+public class PageReadinessTest {
+
+    /**
+     * Tests that a page is reported ready as soon as the target element is present
+     * and that the time-to-ready is recorded.
+     */
+    @Test
+    void testReadyWhenTargetPresent() {
+        WebDriver mockDriver = mock(WebDriver.class);
+        By target = By.className("product-card");
+        when(mockDriver.findElements(target)).thenReturn(List.of(mock(WebElement.class)));
+
+        PageReadiness pageReadiness = new PageReadiness("ReadyTest", Duration.ofSeconds(5), false);
+
+        Assertions.assertTrue(pageReadiness.awaitReady(mockDriver, "listing", target), "Page should be ready.");
+        Assertions.assertEquals(1, PageReadiness.getTimeToReadyStats().get("ReadyTest/listing").getCount(),
+                "Time-to-ready should be recorded for the site.");
+    }
+
+    /**
+     * Tests that waiting gives up after the timeout when the target element never appears.
+     */
+    @Test
+    void testTimeoutWhenTargetMissing() {
+        WebDriver mockDriver = mock(WebDriver.class);
+        By target = By.className("product-card");
+        when(mockDriver.findElements(target)).thenReturn(Collections.emptyList());
+
+        PageReadiness pageReadiness = new PageReadiness("TimeoutTest", Duration.ofMillis(300), false);
+
+        Assertions.assertFalse(pageReadiness.awaitReady(mockDriver, "listing", target), "Page should time out.");
+    }
+
+    /**
+     * Tests that the empty page after the last listing page is ready as soon as it shows the end-of-listing marker.
+     */
+    @Test
+    void testListingEndsOnEndMarker() {
+        WebDriver mockDriver = mock(WebDriver.class);
+        By target = By.className("product-card");
+        By endMarker = By.className("no-results");
+        when(mockDriver.findElements(target)).thenReturn(Collections.emptyList());
+        when(mockDriver.findElements(endMarker)).thenReturn(List.of(mock(WebElement.class)));
+
+        PageReadiness pageReadiness = new PageReadiness("EndMarkerTest", Duration.ofSeconds(10), false);
+        long start = System.nanoTime();
+
+        Assertions.assertTrue(pageReadiness.awaitListingReady(mockDriver, "listing", target, endMarker), "Ended listing should be ready.");
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000, "Ended listing should not wait out the timeout.");
+    }
+
+    /**
+     * Tests that a loaded, quiet listing page without books or an end marker is not taken for the end of the listing.
+     */
+    @Test
+    void testEmptyListingWithoutEndMarkerTimesOut() {
+        WebDriver mockDriver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        By target = By.className("product-card");
+        when(mockDriver.findElements(target)).thenReturn(Collections.emptyList());
+        when(((JavascriptExecutor) mockDriver).executeScript("return document.readyState")).thenReturn("complete");
+        when(((JavascriptExecutor) mockDriver).executeScript("return performance.getEntriesByType('resource').length")).thenReturn(12L);
+
+        PageReadiness pageReadiness = new PageReadiness("QuietTest", Duration.ofMillis(300), false);
+
+        Assertions.assertFalse(pageReadiness.awaitListingReady(mockDriver, "listing", target, By.className("no-results")),
+                "Quiet listing without books or end marker should time out.");
+    }
+}
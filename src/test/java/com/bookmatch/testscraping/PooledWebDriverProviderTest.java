@@ -0,0 +1,204 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.PooledWebDriverProvider;
+import com.bookmatch.webscrapers.WebDriverProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * The PooledWebDriverProviderTest class contains JUnit tests for the {@link PooledWebDriverProvider} class.
+ */
+public class PooledWebDriverProviderTest {
+
+    /**
+     * Tests that a released session is handed out again instead of launching a new browser.
+     */
+    @Test
+    void testReleasedSessionIsReused() {
+        WebDriverProvider mockDelegate = mock(WebDriverProvider.class);
+        WebDriver mockDriver = mock(WebDriver.class);
+        when(mockDelegate.getWebDriver()).thenReturn(mockDriver);
+
+        PooledWebDriverProvider pool = new PooledWebDriverProvider(mockDelegate, 2, 10);
+        WebDriver first = pool.getWebDriver();
+        pool.releaseWebDriver(first);
+        WebDriver second = pool.getWebDriver();
+
+        Assertions.assertSame(first, second, "The pooled session should be reused.");
+        verify(mockDelegate, times(1)).getWebDriver();
+        verify(mockDriver, never()).quit();
+    }
+
+    /**
+     * Tests that a session is quit once it has served the configured number of pages.
+     */
+    @Test
+    void testSessionIsRecycledAfterMaxPages() {
+        WebDriverProvider mockDelegate = mock(WebDriverProvider.class);
+        WebDriver firstDriver = mock(WebDriver.class);
+        WebDriver secondDriver = mock(WebDriver.class);
+        when(mockDelegate.getWebDriver()).thenReturn(firstDriver, secondDriver);
+
+        PooledWebDriverProvider pool = new PooledWebDriverProvider(mockDelegate, 1, 2);
+        pool.releaseWebDriver(pool.getWebDriver());
+        pool.releaseWebDriver(pool.getWebDriver());
+
+        verify(firstDriver).quit();
+        Assertions.assertSame(secondDriver, pool.getWebDriver(), "A fresh session should replace the recycled one.");
+    }
+
+    /**
+     * Tests that a crashed session is discarded when it is returned to the pool.
+     */
+    @Test
+    void testCrashedSessionIsDiscarded() {
+        WebDriverProvider mockDelegate = mock(WebDriverProvider.class);
+        WebDriver mockDriver = mock(WebDriver.class);
+        when(mockDelegate.getWebDriver()).thenReturn(mockDriver);
+        when(mockDriver.getWindowHandle()).thenThrow(new WebDriverException("Browser crashed"));
+
+        PooledWebDriverProvider pool = new PooledWebDriverProvider(mockDelegate, 1, 10);
+        pool.releaseWebDriver(pool.getWebDriver());
+
+        verify(mockDriver).quit();
+        Assertions.assertEquals(0, pool.getIdleCount(), "Crashed sessions should not be kept idle.");
+    }
+
+    /**
+     * Tests that closing the pool quits every idle session.
+     */
+    @Test
+    void testCloseQuitsIdleSessions() {
+        WebDriverProvider mockDelegate = mock(WebDriverProvider.class);
+        WebDriver mockDriver = mock(WebDriver.class);
+        when(mockDelegate.getWebDriver()).thenReturn(mockDriver);
+
+        PooledWebDriverProvider pool = new PooledWebDriverProvider(mockDelegate, 1, 10);
+        pool.releaseWebDriver(pool.getWebDriver());
+        pool.close();
+
+        verify(mockDriver).quit();
+        Assertions.assertThrows(IllegalStateException.class, pool::getWebDriver);
+    }
+
+    /**
+     * Tests that a session over the memory ceiling is restarted when it comes back.
+     */
+    @Test
+    void testBloatedSessionIsRestarted() {
+        WebDriverProvider mockDelegate = mock(WebDriverProvider.class);
+        WebDriver leanDriver = mock(WebDriver.class);
+        WebDriver bloatedDriver = mock(WebDriver.class);
+        when(mockDelegate.getWebDriver()).thenReturn(leanDriver, bloatedDriver, mock(WebDriver.class));
+
+        PooledWebDriverProvider pool = new PooledWebDriverProvider(mockDelegate, 2, 10);
+        pool.setMemoryLimits(driver -> driver == bloatedDriver ? 900 : 100, 500, 0);
+        WebDriver first = pool.getWebDriver();
+        WebDriver second = pool.getWebDriver();
+        pool.releaseWebDriver(first);
+        pool.releaseWebDriver(second);
+
+        verify(bloatedDriver).quit();
+        verify(leanDriver, never()).quit();
+        Assertions.assertEquals(1, pool.getIdleCount());
+        Assertions.assertEquals(100, pool.getResidentBytes());
+    }
+
+    /**
+     * Tests that a borrower waits for a released session instead of launching a browser while the sessions
+     * are over the total memory ceiling.
+     */
+    @Test
+    void testTotalMemoryCeilingQueuesBorrowers() throws Exception {
+        WebDriverProvider mockDelegate = mock(WebDriverProvider.class);
+        when(mockDelegate.getWebDriver()).thenAnswer(invocation -> mock(WebDriver.class));
+
+        PooledWebDriverProvider pool = new PooledWebDriverProvider(mockDelegate, 3, 10);
+        pool.setMemoryLimits(driver -> 600, 0, 1000);
+        WebDriver first = pool.getWebDriver();
+        WebDriver second = pool.getWebDriver();
+        pool.releaseWebDriver(first);
+        pool.releaseWebDriver(second);
+        first = pool.getWebDriver();
+        second = pool.getWebDriver(); // Both measured sessions are out, 1200 bytes in total
+
+        WebDriver held = second;
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            pool.releaseWebDriver(held);
+        });
+        releaser.start();
+        WebDriver third = pool.getWebDriver();
+        releaser.join();
+
+        Assertions.assertSame(second, third, "The released session should be reused instead of launching a third browser.");
+        verify(mockDelegate, times(2)).getWebDriver();
+        pool.releaseWebDriver(first);
+    }
+
+    /**
+     * Tests that sessions released while other threads are waiting to borrow them under memory pressure
+     * keep their leases and permits straight: no healthy browser is quit, and every permit comes back.
+     */
+    @Test
+    void testConcurrentReleaseAndBorrow() throws Exception {
+        List<WebDriver> launched = new ArrayList<>();
+        WebDriverProvider mockDelegate = mock(WebDriverProvider.class);
+        when(mockDelegate.getWebDriver()).thenAnswer(invocation -> {
+            WebDriver driver = mock(WebDriver.class);
+            synchronized (launched) {
+                launched.add(driver);
+            }
+            return driver;
+        });
+
+        PooledWebDriverProvider pool = new PooledWebDriverProvider(mockDelegate, 3, Integer.MAX_VALUE);
+        pool.setMemoryLimits(driver -> 600, 0, 1000); // Any two sessions exceed the ceiling, so borrowers wait on the idle deque
+        ExecutorService borrowers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                runs.add(borrowers.submit(() -> {
+                    for (int round = 0; round < 500; round++) {
+                        pool.releaseWebDriver(pool.getWebDriver());
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            borrowers.shutdownNow();
+        }
+
+        Assertions.assertEquals(0, pool.getLeasedCount(), "Every lease should be returned.");
+        synchronized (launched) {
+            for (WebDriver driver : launched) {
+                verify(driver, never()).quit();
+            }
+        }
+        // All three permits are still available
+        CompletableFuture<Void> fullPool = CompletableFuture.runAsync(() -> {
+            pool.getWebDriver();
+            pool.getWebDriver();
+            pool.getWebDriver();
+        });
+        fullPool.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -4,11 +4,16 @@ import com.bookmatch.ProductDao;
 import com.bookmatch.models.Books;
 import com.bookmatch.models.ComparePrices;
 import com.bookmatch.models.Price;
+import com.bookmatch.models.PriceObservation;
+import com.bookmatch.models.ScrapedItem;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 
 /**
  * The ProductDaoTest class contains JUnit tests for the ProductDao class.
@@ -121,6 +126,160 @@ class ProductDaoTest {
         }
     }
 
+    /**
+     * Tests the saveAll method of the ProductDao by saving a batch of scraped items,
+     * saving it again with a changed price, and asserting that rows are updated rather than duplicated.
+     */
+    @Test
+    void testSaveAll() {
+        try {
+            // Creating a batch of test ScrapedItems
+            ScrapedItem first = createTestItem("Batch Book One", "http://example.com/batch-1");
+            ScrapedItem second = createTestItem("Batch Book Two", "http://example.com/batch-2");
+
+            // Save the batch twice, changing a price in between
+            productDao.saveAll(List.of(first, second));
+            second.setPrice(5.49);
+            productDao.saveAll(List.of(first, second));
+
+            // Asserting that each item has exactly one price row holding the latest price
+            try (var session = sessionFactory.openSession()) {
+                List<Price> prices = session.createQuery("from Price where urls in (:urls)", Price.class)
+                        .setParameterList("urls", List.of(first.getUrl(), second.getUrl()))
+                        .getResultList();
+                Assertions.assertEquals(2, prices.size(), "Each URL should have a single Price row.");
+                Assertions.assertTrue(prices.stream().anyMatch(price -> price.getPrice() == 5.49),
+                        "The changed price should be updated.");
+            }
+
+            // Deleting the test entities from the database
+            cleanUpTestEntities(first);
+            cleanUpTestEntities(second);
+        } catch (Exception e) {
+            e.printStackTrace();
+            Assertions.fail("Exception occurred during the test: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tests the native upsert path of the ProductDao class.
+     */
+    @Test
+    void testUpsertAll() {
+        try {
+            // Creating a batch holding the same book twice, as two scrapers would
+            ScrapedItem item = createTestItem("Upsert Book", "http://example.com/upsert-1");
+            ScrapedItem duplicate = createTestItem("Upsert Book", "http://example.com/upsert-1");
+            duplicate.setPrice(4.99);
+
+            productDao.upsertAll(List.of(item, duplicate));
+
+            // Asserting that the unique indexes collapsed the rows and kept the latest price
+            try (var session = sessionFactory.openSession()) {
+                List<Books> books = session.createQuery("from Books where title = :title and author = :author", Books.class)
+                        .setParameter("title", item.getTitle())
+                        .setParameter("author", item.getAuthor())
+                        .getResultList();
+                Assertions.assertEquals(1, books.size(), "The book should only be stored once.");
+
+                List<Price> prices = session.createQuery("from Price where urls = :urls", Price.class)
+                        .setParameter("urls", item.getUrl())
+                        .getResultList();
+                Assertions.assertEquals(1, prices.size(), "The URL should have a single Price row.");
+                Assertions.assertEquals(4.99, prices.get(0).getPrice());
+                Assertions.assertEquals(books.get(0).getId(), prices.get(0).getBooksId());
+            }
+
+            // Deleting the test entities from the database
+            cleanUpTestEntities(item);
+        } catch (Exception e) {
+            e.printStackTrace();
+            Assertions.fail("Exception occurred during the test: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tests that saving the same item again only appends a price observation when its price changed,
+     * and that the price history of the book can be read back for a time range.
+     */
+    @Test
+    void testPriceHistory() {
+        try {
+            ScrapedItem item = createTestItem("History Book", "http://example.com/history-1");
+            LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1);
+
+            // Save the item three times: new, unchanged and with a changed price
+            productDao.saveAll(List.of(item));
+            productDao.getIdentityCache().removePrice(item.getUrl()); // Make the unchanged save reach the database
+            productDao.saveAll(List.of(item));
+            item.setPrice(17.49);
+            productDao.saveAll(List.of(item));
+
+            Integer bookId = productDao.getIdentityCache().getBookId(item.getTitle(), item.getAuthor());
+            List<PriceObservation> history = productDao.findPriceHistory(bookId, "Test Retailer", before, before.plusHours(1));
+            Assertions.assertEquals(2, history.size(), "Only the first price and the change should be recorded.");
+            Assertions.assertEquals(19.99, history.get(0).getPrice());
+            Assertions.assertEquals(17.49, history.get(1).getPrice());
+            Assertions.assertEquals("GBP", history.get(1).getCurrency());
+
+            // A range after the change still starts with the price in effect
+            List<PriceObservation> later = productDao.findPriceHistory(bookId, null, before.plusHours(1), before.plusHours(2));
+            Assertions.assertEquals(1, later.size());
+            Assertions.assertEquals(17.49, later.get(0).getPrice());
+
+            cleanUpTestEntities(item);
+        } catch (Exception e) {
+            e.printStackTrace();
+            Assertions.fail("Exception occurred during the test: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a test ScrapedItem with the given title and URL.
+     *
+     * @param title The title of the test book.
+     * @param url   The URL of the test book page.
+     * @return The test ScrapedItem.
+     */
+    private ScrapedItem createTestItem(String title, String url) {
+        ScrapedItem item = new ScrapedItem();
+        item.setTitle(title);
+        item.setAuthor("Test Author");
+        item.setDescription("Test Description");
+        item.setPublicationDate(LocalDate.now());
+        item.setImageUrl("http://example.com/image.jpg");
+        item.setPrice(19.99);
+        item.setUrl(url);
+        item.setRetailer("Test Retailer");
+        item.setCurrency("GBP");
+        return item;
+    }
+
+    /**
+     * Cleans up every Books, Price, ComparePrices and PriceObservation row created for a test ScrapedItem.
+     *
+     * @param item The ScrapedItem whose rows should be deleted.
+     */
+    private void cleanUpTestEntities(ScrapedItem item) {
+        try (var session = sessionFactory.openSession()) {
+            var transaction = session.beginTransaction();
+            session.createQuery("delete from ComparePrices where urls = :urls").setParameter("urls", item.getUrl()).executeUpdate();
+            session.createQuery("delete from Price where urls = :urls").setParameter("urls", item.getUrl()).executeUpdate();
+            session.createQuery("delete from PriceObservation where booksId in (select id from Books where title = :title and author = :author)")
+                    .setParameter("title", item.getTitle())
+                    .setParameter("author", item.getAuthor())
+                    .executeUpdate();
+            session.createQuery("delete from Books where title = :title and author = :author")
+                    .setParameter("title", item.getTitle())
+                    .setParameter("author", item.getAuthor())
+                    .executeUpdate();
+            transaction.commit();
+        } catch (Exception e) {
+            e.printStackTrace();
+            Assertions.fail("Exception occurred during cleanup: " + e.getMessage());
+        }
+    }
+
     /**
      * Cleans up the test Books entity by deleting it from the database.
      *
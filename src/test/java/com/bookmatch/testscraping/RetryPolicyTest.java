@@ -0,0 +1,72 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.CircuitBreaker;
+import com.bookmatch.webscrapers.RetryPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The RetryPolicyTest class contains JUnit tests for the {@link RetryPolicy} class.
+ */
+public class RetryPolicyTest {
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(40));
+
+    /**
+     * Tests that a transient browser failure is retried until the page loads.
+     */
+    @Test
+    void testTransientFailureIsRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("Example");
+
+        String result = retryPolicy.execute(circuitBreaker, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new TimeoutException("Page load timed out");
+            }
+            return "book";
+        });
+
+        Assertions.assertEquals("book", result);
+        Assertions.assertEquals(3, attempts.get());
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    /**
+     * Tests that a missing element fails at once and that retries stop after the maximum attempts.
+     */
+    @Test
+    void testFatalFailureAndAttemptLimit() {
+        AtomicInteger attempts = new AtomicInteger();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("Example");
+
+        Assertions.assertThrows(NoSuchElementException.class, () -> retryPolicy.execute(circuitBreaker, () -> {
+            attempts.incrementAndGet();
+            throw new NoSuchElementException("No price on page");
+        }));
+        Assertions.assertEquals(1, attempts.get());
+
+        Assertions.assertThrows(TimeoutException.class, () -> retryPolicy.execute(circuitBreaker, () -> {
+            attempts.incrementAndGet();
+            throw new TimeoutException("Page load timed out");
+        }));
+        Assertions.assertEquals(4, attempts.get());
+    }
+
+    /**
+     * Tests that the backoff stays between zero and the doubled base delay, capped at the maximum delay.
+     */
+    @Test
+    void testBackoffBounds() {
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(retryPolicy.getBackoff(1).toMillis() <= 10);
+            Assertions.assertTrue(retryPolicy.getBackoff(2).toMillis() <= 20);
+            Assertions.assertTrue(retryPolicy.getBackoff(10).toMillis() <= 40);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * The ScraperTest class contains JUnit tests for the run orchestration of the {@link Scraper} class.
+ */
+public class ScraperTest {
+
+    /**
+     * Tests that a run on virtual threads executes every retailer concurrently and summarises the outcome,
+     * recording a failing retailer without affecting the others.
+     */
+    @Test
+    void testRunSummary() throws InterruptedException {
+        CountDownLatch allStarted = new CountDownLatch(6);
+        Scraper scraper = new Scraper();
+        scraper.setVirtualThreads(true);
+        scraper.setDubrayScraper(retailer(DubrayScraper.class, "DubrayBooks.ie", 5, allStarted));
+        scraper.setQbdScraper(retailer(QbdScraper.class, "QBD.com", 7, allStarted));
+        scraper.setHpbScraper(retailer(HpbScraper.class, "HPB.com", 11, allStarted));
+        scraper.setWaterStonesScraper(retailer(WaterStonesScraper.class, "Waterstones.com", 0, allStarted));
+        scraper.setWorderyScraper(retailer(WorderyScraper.class, "Wordery.com", 2, allStarted));
+        OwlsNestScraper owlsNestScraper = retailer(OwlsNestScraper.class, "OwlsNestBooks.com", 0, allStarted);
+        doAnswer(invocation -> {
+            allStarted.countDown();
+            throw new IllegalStateException("Listing unavailable");
+        }).when(owlsNestScraper).scrape();
+        scraper.setOwlsNestScraper(owlsNestScraper);
+
+        ScrapeRunSummary summary = scraper.scrape();
+
+        Assertions.assertEquals(6, summary.getResults().size());
+        Assertions.assertEquals(25, summary.getTotalItems());
+        Assertions.assertEquals(1, summary.getFailures().size());
+        Assertions.assertEquals("OwlsNestBooks.com", summary.getFailures().get(0).getRetailer());
+        Assertions.assertEquals("DubrayBooks.ie", summary.getResults().get(0).getRetailer());
+    }
+
+    /**
+     * Tests that cancelling a run interrupts the scrapers and still completes the summary.
+     */
+    @Test
+    void testCancel() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        DubrayScraper blocked = mock(DubrayScraper.class);
+        when(blocked.getRetailer()).thenReturn("DubrayBooks.ie");
+        when(blocked.scrape()).thenAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(60_000);
+            return 1;
+        });
+        Scraper scraper = new Scraper();
+        scraper.setDubrayScraper(blocked);
+
+        CompletableFuture<ScrapeRunSummary> run = scraper.scrapeAsync();
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        scraper.cancel();
+
+        ScrapeRunSummary summary = run.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(1, summary.getFailures().size());
+        Assertions.assertInstanceOf(InterruptedException.class, summary.getFailures().get(0).getFailure());
+    }
+
+    /**
+     * Mocks a retailer scraper that waits until all retailers are running, then reports its item count.
+     */
+    private static <T extends RetailerScraper> T retailer(Class<T> type, String retailer, int items, CountDownLatch allStarted) {
+        T retailerScraper = mock(type);
+        when(retailerScraper.getRetailer()).thenReturn(retailer);
+        when(retailerScraper.scrape()).thenAnswer(invocation -> {
+            allStarted.countDown();
+            Assertions.assertTrue(allStarted.await(5, TimeUnit.SECONDS), "Retailers should run concurrently.");
+            return items;
+        });
+        return retailerScraper;
+    }
+}
@@ -0,0 +1,609 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.ProductDao;
+import com.bookmatch.WriteBehindQueue;
+import com.bookmatch.models.ScrapedItem;
+import com.bookmatch.webscrapers.CheckpointStore;
+import com.bookmatch.webscrapers.CircuitBreaker;
+import com.bookmatch.webscrapers.CrawlStateStore;
+import com.bookmatch.webscrapers.RetailerAdapter;
+import com.bookmatch.webscrapers.RetryPolicy;
+import com.bookmatch.webscrapers.ScrapingEngine;
+import com.bookmatch.webscrapers.WebDriverProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * The ScrapingEngineTest class contains JUnit tests for the {@link ScrapingEngine} class,
+ * driven by a small retailer adapter against a mocked browser.
+ */
+public class ScrapingEngineTest {
+
+    private static final String BOOK_URL = "https://shop.example.com/book/";
+
+    private final AtomicReference<String> currentUrl = new AtomicReference<>();
+    private final List<String> visitedUrls = new ArrayList<>();
+    private final Map<String, Integer> failuresLeft = new ConcurrentHashMap<>(); // Page loads that fail, by URL
+    private WebDriver driver;
+    private WebDriverProvider webDriverProvider;
+    private ProductDao productDao;
+    private ScrapingEngine engine;
+
+    /**
+     * Sets up a browser with a two book listing on page 1 and an empty page 2.
+     * Every book page has a title, author, description, image and price but no publication date.
+     * The browser reports every page as loaded, but answers no other script unless a test stubs it.
+     */
+    @BeforeEach
+    void setUp() {
+        driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        when(((JavascriptExecutor) driver).executeScript("return document.readyState")).thenReturn("complete");
+        doAnswer(invocation -> {
+            synchronized (visitedUrls) {
+                visitedUrls.add(invocation.getArgument(0));
+            }
+            Integer failures = failuresLeft.computeIfPresent(invocation.getArgument(0), (url, left) -> left - 1);
+            if (failures != null && failures >= 0) {
+                throw new WebDriverException("Connection reset");
+            }
+            currentUrl.set(invocation.getArgument(0));
+            return null;
+        }).when(driver).get(anyString());
+        when(driver.getPageSource()).thenReturn("<html></html>");
+        when(driver.findElements(any(By.class))).thenAnswer(invocation -> {
+            By by = invocation.getArgument(0);
+            if (by.equals(By.className("card"))) {
+                return currentUrl.get().endsWith("page=1") ? List.of(card(1), card(2)) : List.of();
+            }
+            return List.of(mock(WebElement.class));
+        });
+        when(driver.findElement(any(By.class))).thenAnswer(invocation -> {
+            By by = invocation.getArgument(0);
+            if (by.equals(By.id("date"))) {
+                throw new NoSuchElementException("No date on page");
+            }
+            WebElement element = mock(WebElement.class);
+            String book = currentUrl.get().substring(BOOK_URL.length());
+            when(element.getText()).thenReturn(by.equals(By.id("price")) ? "£7.50" : by + " " + book + " (Paperback)");
+            when(element.getAttribute("src")).thenReturn("https://img.example.com/" + book + ".jpg");
+            return element;
+        });
+
+        webDriverProvider = mock(WebDriverProvider.class);
+        when(webDriverProvider.getWebDriver()).thenReturn(driver);
+        productDao = mock(ProductDao.class);
+
+        engine = new ScrapingEngine(webDriverProvider);
+        engine.setProductDao(productDao);
+        engine.setReadyTimeout(Duration.ofMillis(200));
+    }
+
+    /**
+     * Tests that the engine walks the listing, reads each book through the adapter's selectors,
+     * applies its cleaning and defaults, and saves every listing page in one batch.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testScrapeThroughSelectors() throws Exception {
+        int count = engine.scrape(new TestAdapter());
+
+        Assertions.assertEquals(2, count);
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao).saveAll(saved.capture());
+        List<ScrapedItem> items = saved.getValue();
+        Assertions.assertEquals(2, items.size());
+
+        ScrapedItem first = items.get(0);
+        Assertions.assertEquals("By.id: title 1", first.getTitle());
+        Assertions.assertEquals("By.id: author 1 (Paperback)", first.getAuthor());
+        Assertions.assertEquals("https://img.example.com/1.jpg", first.getImageUrl());
+        Assertions.assertEquals(7.5, first.getPrice());
+        Assertions.assertEquals(LocalDate.of(2000, 1, 1), first.getPublicationDate());
+        Assertions.assertEquals(BOOK_URL + 1, first.getUrl());
+        Assertions.assertEquals("Example.com", first.getRetailer());
+        verify(webDriverProvider, times(4)).releaseWebDriver(any(WebDriver.class));
+    }
+
+    /**
+     * Tests that books the adapter can read from static HTML never reach the browser,
+     * and that the item limit cuts the listing short.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStaticPagesSkipTheBrowser() throws Exception {
+        engine.setStaticPageProvider(url -> "<h1>Static " + url.substring(BOOK_URL.length()) + "</h1>");
+        TestAdapter adapter = new TestAdapter() {
+            @Override
+            public int getMaxItems() {
+                return 1;
+            }
+
+            @Override
+            public boolean isStaticPageSupported() {
+                return true;
+            }
+
+            @Override
+            public ScrapedItem extractStatic(String pageSource) {
+                ScrapedItem item = new ScrapedItem();
+                item.setTitle(pageSource.replaceAll("<[^>]+>", ""));
+                return item;
+            }
+        };
+
+        int count = engine.scrape(adapter);
+
+        Assertions.assertEquals(1, count);
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao).saveAll(saved.capture());
+        Assertions.assertEquals("Static 1", saved.getValue().get(0).getTitle());
+        Assertions.assertEquals(BOOK_URL + 1, saved.getValue().get(0).getUrl());
+        Assertions.assertFalse(visitedUrls.stream().anyMatch(url -> url.startsWith(BOOK_URL)));
+    }
+
+    /**
+     * Tests that an incremental run skips book pages whose listing entry is unchanged since the last run.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIncrementalRunSkipsUnchangedPages(@TempDir Path dir) throws Exception {
+        CrawlStateStore crawlStateStore = new CrawlStateStore(dir.resolve("state.tsv"));
+        engine.setCrawlStateStore(crawlStateStore);
+        engine.setIncremental(true);
+        Assertions.assertEquals(2, engine.scrape(new TestAdapter()));
+        Assertions.assertEquals(2, crawlStateStore.size());
+        visitedUrls.clear();
+
+        CrawlStateStore reloaded = new CrawlStateStore(dir.resolve("state.tsv"));
+        reloaded.load();
+        engine.setCrawlStateStore(reloaded);
+        int count = engine.scrape(new TestAdapter());
+
+        Assertions.assertEquals(0, count);
+        Assertions.assertFalse(visitedUrls.stream().anyMatch(url -> url.startsWith(BOOK_URL)));
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao, times(2)).saveAll(saved.capture());
+        Assertions.assertTrue(saved.getValue().isEmpty());
+    }
+
+    /**
+     * Tests that the fetch of a book that failed to save is not recorded, so the next incremental run fetches it again.
+     */
+    @Test
+    void testUnsavedBookIsNotRecordedAsFetched(@TempDir Path dir) throws Exception {
+        doThrow(new RuntimeException("Database unavailable")).when(productDao).saveAll(anyList());
+        CrawlStateStore crawlStateStore = new CrawlStateStore(dir.resolve("state.tsv"));
+        engine.setCrawlStateStore(crawlStateStore);
+        engine.setIncremental(true);
+
+        engine.scrape(new TestAdapter());
+
+        Assertions.assertEquals(0, crawlStateStore.size());
+    }
+
+    /**
+     * Tests that price refresh mode updates known books from their listing card and only opens the pages of unknown books.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPriceRefreshOnlyVisitsUnknownBooks() throws Exception {
+        when(productDao.refreshPrices(eq("Example.com"), eq("GBP"), anyMap())).thenReturn(Set.of(BOOK_URL + 1));
+        engine.setPriceRefresh(true);
+        TestAdapter adapter = new TestAdapter() {
+            @Override
+            public By getListingPriceSelector() {
+                return By.className("card-price");
+            }
+        };
+
+        int count = engine.scrape(adapter);
+
+        Assertions.assertEquals(1, count);
+        ArgumentCaptor<Map<String, Double>> prices = ArgumentCaptor.forClass(Map.class);
+        verify(productDao).refreshPrices(eq("Example.com"), eq("GBP"), prices.capture());
+        Assertions.assertEquals(Map.of(BOOK_URL + 1, 6.0, BOOK_URL + 2, 7.0), prices.getValue());
+        Assertions.assertFalse(visitedUrls.contains(BOOK_URL + 1));
+        Assertions.assertTrue(visitedUrls.contains(BOOK_URL + 2));
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao).saveAll(saved.capture());
+        Assertions.assertEquals(BOOK_URL + 2, saved.getValue().get(0).getUrl());
+    }
+
+    /**
+     * Tests that a book page whose first load fails is retried and recovered.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedPageLoadIsRetried() throws Exception {
+        engine.setRetryPolicy(new RetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10)));
+        failuresLeft.put(BOOK_URL + 2, 1);
+
+        int count = engine.scrape(new TestAdapter());
+
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals(2, visitedUrls.stream().filter(url -> url.equals(BOOK_URL + 2)).count());
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao).saveAll(saved.capture());
+        Assertions.assertEquals(BOOK_URL + 2, saved.getValue().get(1).getUrl());
+    }
+
+    /**
+     * Tests that a book page that does not render in time is loaded again instead of being given up as incomplete.
+     */
+    @Test
+    void testSlowBookPageIsRetried() throws Exception {
+        engine.setRetryPolicy(new RetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10)));
+        doAnswer(invocation -> {
+            synchronized (visitedUrls) {
+                return Collections.frequency(visitedUrls, BOOK_URL + 1) > 1 ? List.of(mock(WebElement.class)) : List.of();
+            }
+        }).when(driver).findElements(By.id("price"));
+        TestAdapter adapter = new TestAdapter() {
+            @Override
+            public int getMaxItems() {
+                return 1; // A single book page in flight, so the current URL is its own
+            }
+        };
+
+        Assertions.assertEquals(1, engine.scrape(adapter));
+        Assertions.assertEquals(2, Collections.frequency(visitedUrls, BOOK_URL + 1));
+    }
+
+    /**
+     * Tests that a listing card without a book link is skipped when the cards are read one by one.
+     */
+    @Test
+    void testCardWithoutLinkIsSkipped() throws Exception {
+        WebElement linkless = mock(WebElement.class);
+        when(linkless.findElement(any(By.class))).thenThrow(new NoSuchElementException("No link in card"));
+        doAnswer(invocation -> currentUrl.get().endsWith("page=1") ? List.of(card(1), linkless, card(2)) : List.of())
+                .when(driver).findElements(By.className("card"));
+
+        Assertions.assertEquals(2, engine.scrape(new TestAdapter()));
+        Assertions.assertTrue(visitedUrls.containsAll(List.of(BOOK_URL + 1, BOOK_URL + 2)));
+    }
+
+    /**
+     * Tests that a retailer whose pages keep failing is paused by its circuit breaker and finally given up on.
+     */
+    @Test
+    void testBrokenRetailerIsGivenUp() throws Exception {
+        engine.setRetryPolicy(new RetryPolicy(5, Duration.ofMillis(1), Duration.ofMillis(1)));
+        engine.setCircuitBreaker(1, Duration.ofMillis(10));
+        failuresLeft.put("https://shop.example.com/list?page=1", 100);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> engine.scrape(new TestAdapter()));
+        Assertions.assertEquals(100 - CircuitBreaker.DEFAULT_MAX_TRIPS, failuresLeft.get("https://shop.example.com/list?page=1")); // One load per pause
+        verify(productDao, never()).saveAll(anyList());
+    }
+
+    /**
+     * Tests that a resumed run continues from the checkpoint, skips the books already processed
+     * and leaves a finished retailer alone.
+     */
+    @Test
+    void testResumeFromCheckpoint(@TempDir Path dir) throws Exception {
+        CheckpointStore checkpointStore = new CheckpointStore(dir.resolve("checkpoint.tsv"));
+        checkpointStore.recordPage("Example.com", 1, 1, 1, List.of(BOOK_URL + 1));
+        engine.setCheckpointStore(checkpointStore);
+
+        Assertions.assertEquals(2, engine.scrape(new TestAdapter()));
+        Assertions.assertFalse(visitedUrls.contains(BOOK_URL + 1));
+        Assertions.assertTrue(visitedUrls.contains(BOOK_URL + 2));
+        Assertions.assertTrue(checkpointStore.get("Example.com").isFinished());
+        visitedUrls.clear();
+
+        Assertions.assertEquals(2, engine.scrape(new TestAdapter()));
+        Assertions.assertTrue(visitedUrls.isEmpty());
+    }
+
+    /**
+     * Tests that a page is only checkpointed once its books are written, and that a page with a book that could not
+     * be written stays the page to resume at, with only the written book processed.
+     */
+    @Test
+    void testCheckpointWaitsForWrittenBooks(@TempDir Path dir) throws Exception {
+        doThrow(new RuntimeException("Incorrect string value")).when(productDao)
+                .saveAll(argThat(batch -> batch.stream().anyMatch(item -> item.getUrl().equals(BOOK_URL + 2))));
+        CheckpointStore checkpointStore = new CheckpointStore(dir.resolve("checkpoint.tsv"));
+        engine.setCheckpointStore(checkpointStore);
+        WriteBehindQueue writeBehindQueue = new WriteBehindQueue(productDao, 10, 1, 10);
+        engine.setWriteBehindQueue(writeBehindQueue);
+
+        engine.scrape(new TestAdapter());
+        writeBehindQueue.close();
+
+        CheckpointStore.Checkpoint checkpoint = checkpointStore.get("Example.com");
+        Assertions.assertFalse(checkpoint.isFinished());
+        Assertions.assertEquals(1, checkpoint.getNextPage());
+        Assertions.assertEquals(Set.of(BOOK_URL + 1), checkpoint.getProcessedUrls());
+        Assertions.assertEquals(1, checkpoint.getItemCount());
+        visitedUrls.clear();
+
+        doNothing().when(productDao).saveAll(anyList());
+        engine.setWriteBehindQueue(null);
+        Assertions.assertEquals(2, engine.scrape(new TestAdapter()));
+        Assertions.assertFalse(visitedUrls.contains(BOOK_URL + 1));
+        Assertions.assertTrue(visitedUrls.contains(BOOK_URL + 2));
+        Assertions.assertTrue(checkpointStore.get("Example.com").isFinished());
+    }
+
+    /**
+     * Tests that a listing page that cannot be loaded stops the run without finishing the retailer,
+     * so that a resumed run retries the page.
+     */
+    @Test
+    void testFailedListingPageIsNotTheEnd(@TempDir Path dir) throws Exception {
+        engine.setRetryPolicy(new RetryPolicy(2, Duration.ofMillis(1), Duration.ofMillis(1)));
+        failuresLeft.put("https://shop.example.com/list?page=2", 100);
+        CheckpointStore checkpointStore = new CheckpointStore(dir.resolve("checkpoint.tsv"));
+        engine.setCheckpointStore(checkpointStore);
+
+        Assertions.assertEquals(2, engine.scrape(new TestAdapter()));
+
+        CheckpointStore.Checkpoint checkpoint = checkpointStore.get("Example.com");
+        Assertions.assertFalse(checkpoint.isFinished());
+        Assertions.assertEquals(2, checkpoint.getNextPage());
+        Assertions.assertEquals(2, checkpoint.getItemCount());
+    }
+
+    /**
+     * Tests that the fields of a book page are read in one script call, with the structured data and
+     * adapter cleaning applied as for per-field reads.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testScriptedExtraction() throws Exception {
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any())).thenAnswer(invocation -> {
+            String book = currentUrl.get().substring(BOOK_URL.length());
+            Map<String, Object> values = new HashMap<>();
+            values.put("TITLE", "Scripted " + book + " (Paperback)");
+            values.put("AUTHOR", "Author " + book);
+            values.put("DESCRIPTION", "Description " + book);
+            values.put("PUBLICATION_DATE", null);
+            values.put("IMAGE_URL", "https://img.example.com/" + book + ".jpg");
+            values.put("PRICE", "£9.99");
+            return values;
+        });
+
+        Assertions.assertEquals(2, engine.scrape(new TestAdapter()));
+
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao).saveAll(saved.capture());
+        ScrapedItem first = saved.getValue().get(0);
+        Assertions.assertEquals("Scripted 1", first.getTitle());
+        Assertions.assertEquals(9.99, first.getPrice());
+        Assertions.assertEquals(LocalDate.of(2000, 1, 1), first.getPublicationDate());
+        verify(driver, never()).findElement(any(By.class));
+        verify((JavascriptExecutor) driver, times(2)).executeScript(anyString(), any());
+    }
+
+    /**
+     * Tests that the cards of a listing page are read in one script call, books without a link are skipped,
+     * and the card titles and prices reach the listing entries.
+     */
+    @Test
+    void testScriptedListingRead() throws Exception {
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any(), any(), any())).thenAnswer(invocation ->
+                currentUrl.get().endsWith("page=1")
+                        ? List.of(Arrays.asList(BOOK_URL + 1, "£6.00", " Book 1 "), Arrays.asList(null, "£7.00", null),
+                        Arrays.asList(BOOK_URL + 2, null, "Book 2"))
+                        : List.of());
+        when(productDao.refreshPrices(eq("Example.com"), eq("GBP"), anyMap())).thenReturn(Set.of(BOOK_URL + 1));
+        engine.setPriceRefresh(true);
+        TestAdapter adapter = new TestAdapter() {
+            @Override
+            public By getListingPriceSelector() {
+                return By.className("card-price");
+            }
+        };
+
+        Assertions.assertEquals(1, engine.scrape(adapter));
+
+        verify(productDao).refreshPrices("Example.com", "GBP", Map.of(BOOK_URL + 1, 6.0));
+        Assertions.assertTrue(visitedUrls.contains(BOOK_URL + 2));
+        verify(driver, times(2)).findElements(By.className("card")); // Only the readiness check of each listing page
+    }
+
+    /**
+     * Tests that with a listing lookahead the next listing page is loaded while the book pages of the current one
+     * are still being fetched, and that the run still ends at the first empty page.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testNextListingPageIsPrefetched() throws Exception {
+        engine.setListingLookahead(1);
+        List<String> listingsSeenDuringBooks = new ArrayList<>();
+        engine.setStaticPageProvider(url -> {
+            // The first book page waits for the prefetch, so it shows whether the next listing page overlaps the books
+            long deadline = System.currentTimeMillis() + 5000;
+            while (url.endsWith("/1") && System.currentTimeMillis() < deadline && !visitedListing(2)) {
+                LockSupport.parkNanos(10_000_000);
+            }
+            synchronized (visitedUrls) {
+                listingsSeenDuringBooks.addAll(visitedUrls);
+            }
+            return "<h1>Static " + url.substring(BOOK_URL.length()) + "</h1>";
+        });
+        TestAdapter adapter = new TestAdapter() {
+            @Override
+            public boolean isStaticPageSupported() {
+                return true;
+            }
+
+            @Override
+            public ScrapedItem extractStatic(String pageSource) {
+                ScrapedItem item = new ScrapedItem();
+                item.setTitle(pageSource.replaceAll("<[^>]+>", ""));
+                return item;
+            }
+        };
+
+        Assertions.assertEquals(2, engine.scrape(adapter));
+
+        Assertions.assertTrue(listingsSeenDuringBooks.contains("https://shop.example.com/list?page=2"));
+        Assertions.assertEquals(List.of("https://shop.example.com/list?page=1", "https://shop.example.com/list?page=2"), visitedUrls);
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao).saveAll(saved.capture());
+        Assertions.assertEquals("Static 2", saved.getValue().get(1).getTitle());
+    }
+
+    private boolean visitedListing(int page) {
+        synchronized (visitedUrls) {
+            return visitedUrls.contains("https://shop.example.com/list?page=" + page);
+        }
+    }
+
+    /**
+     * Tests that a book which shows up again on a later listing page, with a tracking parameter, is only fetched once.
+     */
+    @Test
+    void testBookListedTwiceIsFetchedOnce() throws Exception {
+        WebElement moved = card(3);
+        WebElement movedLink = mock(WebElement.class);
+        when(movedLink.getAttribute("href")).thenReturn(BOOK_URL + "2?utm_source=list#top");
+        when(moved.findElement(By.tagName("a"))).thenReturn(movedLink);
+        List<WebElement> secondPage = List.of(moved, card(3));
+        doAnswer(invocation -> currentUrl.get().endsWith("page=1") ? List.of(card(1), card(2))
+                : currentUrl.get().endsWith("page=2") ? secondPage : List.of())
+                .when(driver).findElements(By.className("card"));
+
+        Assertions.assertEquals(3, engine.scrape(new TestAdapter()));
+
+        Assertions.assertEquals(1, visitedUrls.stream().filter((BOOK_URL + 2)::equals).count());
+        Assertions.assertEquals(1, visitedUrls.stream().filter((BOOK_URL + 3)::equals).count());
+    }
+
+    /**
+     * Tests that a book is saved under the URL as listed, tracking parameters included,
+     * so it keeps matching the rows stored by earlier runs.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBookIsSavedUnderListedUrl() throws Exception {
+        WebElement tagged = card(1);
+        WebElement taggedLink = mock(WebElement.class);
+        when(taggedLink.getAttribute("href")).thenReturn(BOOK_URL + "1?utm_source=list");
+        when(tagged.findElement(By.tagName("a"))).thenReturn(taggedLink);
+        doAnswer(invocation -> currentUrl.get().endsWith("page=1") ? List.of(tagged) : List.of())
+                .when(driver).findElements(By.className("card"));
+
+        Assertions.assertEquals(1, engine.scrape(new TestAdapter()));
+
+        ArgumentCaptor<List<ScrapedItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productDao).saveAll(saved.capture());
+        Assertions.assertEquals(BOOK_URL + "1?utm_source=list", saved.getValue().get(0).getUrl());
+    }
+
+    private static WebElement card(int book) {
+        WebElement link = mock(WebElement.class);
+        when(link.getAttribute("href")).thenReturn(BOOK_URL + book);
+        WebElement price = mock(WebElement.class);
+        when(price.getText()).thenReturn("£" + (book + 5) + ".00");
+        WebElement card = mock(WebElement.class);
+        when(card.findElement(By.tagName("a"))).thenReturn(link);
+        when(card.findElement(By.className("card-price"))).thenReturn(price);
+        return card;
+    }
+
+    /**
+     * A retailer whose book pages publish everything except the publication date.
+     */
+    private static class TestAdapter implements RetailerAdapter {
+
+        @Override
+        public String getSiteName() {
+            return "Example";
+        }
+
+        @Override
+        public String getRetailer() {
+            return "Example.com";
+        }
+
+        @Override
+        public String getListingUrl(int page) {
+            return "https://shop.example.com/list?page=" + page;
+        }
+
+        @Override
+        public By getListingSelector() {
+            return By.className("card");
+        }
+
+        @Override
+        public By getBookLinkSelector() {
+            return By.tagName("a");
+        }
+
+        @Override
+        public By getDetailReadySelector() {
+            return By.id("price");
+        }
+
+        @Override
+        public By getSelector(Field field) {
+            switch (field) {
+                case TITLE:
+                    return By.id("title");
+                case AUTHOR:
+                    return By.id("author");
+                case DESCRIPTION:
+                    return By.id("description");
+                case PUBLICATION_DATE:
+                    return By.id("date");
+                case IMAGE_URL:
+                    return By.id("image");
+                default:
+                    return By.id("price");
+            }
+        }
+
+        @Override
+        public boolean isRequired(Field field) {
+            return field != Field.PUBLICATION_DATE;
+        }
+
+        @Override
+        public String clean(Field field, String value) {
+            return field == Field.TITLE ? value.replace("(Paperback)", "").trim() : value.trim();
+        }
+
+        @Override
+        public void complete(ScrapedItem item) {
+            if (item.getPublicationDate() == null) {
+                item.setPublicationDate(LocalDate.of(2000, 1, 1));
+            }
+        }
+    }
+}
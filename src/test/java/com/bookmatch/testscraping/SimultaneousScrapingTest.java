@@ -5,6 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openqa.selenium.WebDriver;
 import com.bookmatch.webscrapers.*;
+
+import java.time.Duration;
+
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,32 +48,28 @@ public class SimultaneousScrapingTest {
         scraper.setQbdScraper(qbdScraper);
         scraper.setDubrayScraper(dubrayScraper);
         scraper.setOwlsNestScraper(owlsNestScraper);
+
+        // The mocked browser never shows a listing, so every scraper gives up on it quickly
+        for (RetailerScraper retailerScraper : scraper.getScrapers()) {
+            ScrapingEngine scrapingEngine = retailerScraper.getScrapingEngine();
+            scrapingEngine.setReadyTimeout(Duration.ofMillis(100));
+            scrapingEngine.setRetryPolicy(new RetryPolicy(1, Duration.ZERO, Duration.ZERO));
+            retailerScraper.setScrapingEngine(scrapingEngine);
+        }
     }
 
     /**
      * Tests the simultaneous execution of all scrapers.
-     * Verifies that each scraper's start method is called once.
+     * Verifies that every scraper ran to completion and is reported in the run summary.
      */
     @Test
     void testSimultaneousScraping() throws InterruptedException {
-        // Execute concurrent scraping
-        scraper.scrape();
-
-        // Wait for each thread to finish
-        dubrayScraper.join();
-        qbdScraper.join();
-        hpbScraper.join();
-        waterStonesScraper.join();
-        worderyScraper.join();
-        owlsNestScraper.join();
+        // Execute concurrent scraping, which waits for every scraper to finish
+        ScrapeRunSummary summary = scraper.scrape();
 
         // Adding assertions
-        // Checking if each thread has finished execution
-        Assertions.assertFalse(dubrayScraper.isAlive(), "Ensure that DubrayScraper is not alive after scraping.");
-        Assertions.assertFalse(qbdScraper.isAlive(), "Ensure that QbdScraper is not  alive after scraping.");
-        Assertions.assertFalse(hpbScraper.isAlive(), "Ensure that HpbScraper is not alive after scraping.");
-        Assertions.assertFalse(waterStonesScraper.isAlive(), "Ensure that WaterStonesScraper is not alive after scraping.");
-        Assertions.assertFalse(worderyScraper.isAlive(), "Ensure that WorderyScraper is not alive after scraping.");
-        Assertions.assertFalse(owlsNestScraper.isAlive(), "Ensure that OwlsNestScraper is not alive after scraping.");
+        Assertions.assertEquals(6, summary.getResults().size(), "Ensure that every scraper is reported.");
+        Assertions.assertTrue(summary.getFailures().isEmpty(), "Ensure that no scraper failed.");
+        verify(mockWebDriverProvider, atLeast(6)).getWebDriver();
     }
 }
@@ -0,0 +1,101 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.models.ScrapedItem;
+import com.bookmatch.webscrapers.StructuredDataExtractor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+/**
+ * The StructuredDataExtractorTest class contains JUnit tests for the {@link StructuredDataExtractor} class.
+ */
+public class StructuredDataExtractorTest {
+
+    /**
+     * Tests extracting every field from a JSON-LD Book node nested in a graph.
+     */
+    @Test
+    void testExtractFromJsonLd() {
+        String html = "<html><head><script type=\"application/ld+json\">"
+                + "{\"@context\":\"https://schema.org\",\"@graph\":[{\"@type\":\"WebPage\",\"name\":\"Shop\"},"
+                + "{\"@type\":\"Book\",\"name\":\"The Test Book\",\"author\":[{\"@type\":\"Person\",\"name\":\"Jane Doe\"}],"
+                + "\"description\":\"A story.\",\"datePublished\":\"2021-03-04T00:00:00Z\",\"isbn\":\"9781234567897\","
+                + "\"image\":{\"@type\":\"ImageObject\",\"url\":\"https://example.com/cover.jpg\"},"
+                + "\"offers\":{\"@type\":\"Offer\",\"price\":\"12.50\",\"priceCurrency\":\"EUR\"}}]}"
+                + "</script></head><body></body></html>";
+
+        ScrapedItem item = StructuredDataExtractor.extract(html);
+
+        Assertions.assertEquals("The Test Book", item.getTitle());
+        Assertions.assertEquals("Jane Doe", item.getAuthor());
+        Assertions.assertEquals("A story.", item.getDescription());
+        Assertions.assertEquals(LocalDate.of(2021, 3, 4), item.getPublicationDate());
+        Assertions.assertEquals("9781234567897", item.getIsbn());
+        Assertions.assertEquals("https://example.com/cover.jpg", item.getImageUrl());
+        Assertions.assertEquals(12.50, item.getPrice());
+    }
+
+    /**
+     * Tests that microdata fills in fields when the page has no JSON-LD and that missing fields stay null.
+     */
+    @Test
+    void testMicrodataFallback() {
+        String html = "<div itemscope itemtype=\"https://schema.org/Book\">"
+                + "<h1 itemprop=\"name\">Microdata Book</h1>"
+                + "<span itemprop=\"author\">John Roe</span>"
+                + "<meta itemprop=\"datePublished\" content=\"2019\">"
+                + "<span itemprop=\"price\" content=\"7,99\">7,99 €</span>"
+                + "</div>";
+
+        ScrapedItem item = StructuredDataExtractor.extract(html);
+
+        Assertions.assertEquals("Microdata Book", item.getTitle());
+        Assertions.assertEquals("John Roe", item.getAuthor());
+        Assertions.assertEquals(LocalDate.of(2019, 1, 1), item.getPublicationDate());
+        Assertions.assertEquals(7.99, item.getPrice());
+        Assertions.assertNull(item.getImageUrl(), "Fields absent from the page should be left for the XPath fallback.");
+    }
+
+    /**
+     * Tests that malformed JSON-LD blocks are skipped instead of failing the extraction.
+     */
+    @Test
+    void testMalformedJsonLdIsIgnored() {
+        String html = "<script type='application/ld+json'>{not json</script>"
+                + "<div itemscope itemtype='http://schema.org/Product'><span itemprop=\"name\">Fallback Title</span></div>";
+
+        Assertions.assertEquals("Fallback Title", StructuredDataExtractor.extract(html).getTitle());
+    }
+
+    /**
+     * Tests that microdata is only read from the book's own item, not from the other items on the page.
+     */
+    @Test
+    void testMicrodataIsScopedToTheProduct() {
+        String html = "<nav itemscope itemtype=\"https://schema.org/BreadcrumbList\"><span itemprop=\"name\">Fiction</span></nav>"
+                + "<div itemscope itemtype=\"https://schema.org/Book\"><div class=\"details\">"
+                + "<h1 itemprop=\"name\">Scoped Book</h1></div></div>"
+                + "<div itemscope itemtype=\"https://schema.org/Book\"><span itemprop=\"price\">4.99</span></div>";
+
+        ScrapedItem item = StructuredDataExtractor.extract(html);
+
+        Assertions.assertEquals("Scoped Book", item.getTitle());
+        Assertions.assertNull(item.getPrice(), "The price of a related book must not be taken for the book's own.");
+        Assertions.assertNull(StructuredDataExtractor.extract("<span itemprop=\"name\">Customers also bought</span>").getTitle());
+    }
+
+    /**
+     * Tests that prices with thousands separators are read in either notation.
+     */
+    @Test
+    void testParsePriceWithThousandsSeparators() {
+        Assertions.assertEquals(1299.00, StructuredDataExtractor.parsePrice("$1,299.00"));
+        Assertions.assertEquals(1299.00, StructuredDataExtractor.parsePrice("1.299,00 €"));
+        Assertions.assertEquals(1299.0, StructuredDataExtractor.parsePrice("£1,299"));
+        Assertions.assertEquals(1234567.89, StructuredDataExtractor.parsePrice("1,234,567.89"));
+        Assertions.assertEquals(9.99, StructuredDataExtractor.parsePrice("EUR 9,99"));
+        Assertions.assertEquals(12.5, StructuredDataExtractor.parsePrice("12.50."));
+        Assertions.assertNull(StructuredDataExtractor.parsePrice("Out of stock"));
+    }
+}
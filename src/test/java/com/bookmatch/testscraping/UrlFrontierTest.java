@@ -0,0 +1,42 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.webscrapers.UrlFrontier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * The UrlFrontierTest class contains JUnit tests for the {@link UrlFrontier} class.
+ */
+public class UrlFrontierTest {
+
+    /**
+     * Tests that fragments, tracking parameters, default ports and host case are dropped while the path
+     * and the other query parameters are kept in order.
+     */
+    @Test
+    void testCanonicalize() {
+        Assertions.assertEquals("https://www.example.com/book/Some-Title/9781234567897?format=paperback&edition=2",
+                UrlFrontier.canonicalize("HTTPS://WWW.Example.com:443/book/Some-Title/9781234567897"
+                        + "?utm_source=newsletter&format=paperback&gclid=abc&edition=2#reviews"));
+        Assertions.assertEquals("http://example.com:8080/", UrlFrontier.canonicalize("http://example.com:8080"));
+        Assertions.assertEquals("https://example.com/book", UrlFrontier.canonicalize("https://example.com/book?ref=home"));
+        Assertions.assertEquals("not a url", UrlFrontier.canonicalize("not a url"));
+    }
+
+    /**
+     * Tests that a URL is only accepted once in whatever tagged form it comes back, and that URLs
+     * handled before a restart are not accepted again.
+     */
+    @Test
+    void testEachUrlIsAddedOnce() {
+        UrlFrontier frontier = new UrlFrontier(List.of("https://example.com/book/1"));
+
+        Assertions.assertFalse(frontier.add("https://example.com/book/1?utm_medium=email"));
+        Assertions.assertTrue(frontier.add("https://example.com/book/2"));
+        Assertions.assertFalse(frontier.add("https://EXAMPLE.com/book/2#top"));
+        Assertions.assertTrue(frontier.contains("https://example.com/book/2?fbclid=x"));
+        Assertions.assertEquals(2, frontier.size());
+    }
+}
@@ -1,10 +1,17 @@
 package com.bookmatch.testscraping;
 
+import com.bookmatch.models.ScrapedItem;
 import com.bookmatch.webscrapers.WaterStonesScraper;
 import com.bookmatch.ProductDao;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.openqa.selenium.WebDriver;
 import com.bookmatch.webscrapers.FirefoxWebDriverProvider;
+import com.bookmatch.webscrapers.RetryPolicy;
+import com.bookmatch.webscrapers.ScrapingEngine;
+
+import java.time.Duration;
+import java.time.LocalDate;
 
 import static org.mockito.Mockito.*;
 
@@ -27,10 +34,39 @@ public class WaterStonesScraperTest {
         WaterStonesScraper waterStonesScraper = new WaterStonesScraper(mockWebDriverProvider);
         waterStonesScraper.setProductDao(mockProductDao);
 
+        // The mocked browser never shows a listing, so give up on it quickly
+        ScrapingEngine scrapingEngine = waterStonesScraper.getScrapingEngine();
+        scrapingEngine.setReadyTimeout(Duration.ofMillis(100));
+        scrapingEngine.setRetryPolicy(new RetryPolicy(1, Duration.ZERO, Duration.ZERO));
+        waterStonesScraper.setScrapingEngine(scrapingEngine);
+
         // Running the scraper
-        waterStonesScraper.start();
+        Assertions.assertEquals(0, waterStonesScraper.scrape());
 
         // Verifying interactions
         verify(mockWebDriverProvider, atLeastOnce()).getWebDriver();
     }
+
+    /**
+     * Tests that the static HTML fast path reads the author's name rather than the link to the author page,
+     * and cleans and parses the values as the browser path does.
+     */
+    @Test
+    public void testExtractStatic() {
+        String html = "<html><head><meta itemprop='datePublished' content='2023-05-11'></head><body>"
+                + "<h1 id=\"scope_book_title\">The Test Book (Paperback)</h1>"
+                + "<span itemprop=\"author\" href=\"/author/jane-doe\"><a href=\"/author/jane-doe\"> Jane Doe </a></span>"
+                + "<p itemprop=\"description\"> Love &amp; loss </p>"
+                + "<img id=\"scope_book_image\" src=\"https://example.com/cover.jpg\">"
+                + "<b itemprop=\"price\">&pound;1,299.00</b>"
+                + "</body></html>";
+
+        ScrapedItem item = new WaterStonesScraper(mock(FirefoxWebDriverProvider.class)).extractStatic(html);
+
+        Assertions.assertEquals("The Test Book", item.getTitle());
+        Assertions.assertEquals("Jane Doe", item.getAuthor());
+        Assertions.assertEquals("Love & loss", item.getDescription());
+        Assertions.assertEquals(LocalDate.of(2023, 5, 11), item.getPublicationDate());
+        Assertions.assertEquals(1299.00, item.getPrice());
+    }
 }
@@ -2,9 +2,14 @@ package com.bookmatch.testscraping;
 
 import com.bookmatch.webscrapers.WorderyScraper;
 import com.bookmatch.ProductDao;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.openqa.selenium.WebDriver;
 import com.bookmatch.webscrapers.FirefoxWebDriverProvider;
+import com.bookmatch.webscrapers.RetryPolicy;
+import com.bookmatch.webscrapers.ScrapingEngine;
+
+import java.time.Duration;
 
 import static org.mockito.Mockito.*;
 
@@ -27,8 +32,14 @@ public class WorderyScraperTest {
         WorderyScraper worderyScraper = new WorderyScraper(mockWebDriverProvider);
         worderyScraper.setProductDao(mockProductDao);
 
+        // The mocked browser never shows a listing, so give up on it quickly
+        ScrapingEngine scrapingEngine = worderyScraper.getScrapingEngine();
+        scrapingEngine.setReadyTimeout(Duration.ofMillis(100));
+        scrapingEngine.setRetryPolicy(new RetryPolicy(1, Duration.ZERO, Duration.ZERO));
+        worderyScraper.setScrapingEngine(scrapingEngine);
+
         // Running the scraper
-        worderyScraper.start();
+        Assertions.assertEquals(0, worderyScraper.scrape());
 
         // Verifying interactions
         verify(mockWebDriverProvider, atLeastOnce()).getWebDriver();
@@ -0,0 +1,178 @@
+package com.bookmatch.testscraping;
+
+import com.bookmatch.ProductDao;
+import com.bookmatch.WriteBehindQueue;
+import com.bookmatch.models.ScrapedItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * The WriteBehindQueueTest class contains JUnit tests for the {@link WriteBehindQueue} class.
+ */
+public class WriteBehindQueueTest {
+
+    /**
+     * Tests that every enqueued item is written in batches no larger than the batch size
+     * and that closing the queue flushes what is still pending.
+     */
+    @Test
+    void testItemsAreWrittenInBatches() throws Exception {
+        ProductDao productDao = Mockito.mock(ProductDao.class);
+        AtomicInteger saved = new AtomicInteger();
+        AtomicInteger largestBatch = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<?> batch = invocation.getArgument(0);
+            saved.addAndGet(batch.size());
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            return null;
+        }).when(productDao).saveAll(anyList());
+
+        WriteBehindQueue queue = new WriteBehindQueue(productDao, 20, 2, 10);
+        for (int i = 0; i < 120; i++) {
+            queue.enqueue(createItem(i));
+        }
+        queue.close();
+
+        Assertions.assertEquals(120, saved.get());
+        Assertions.assertEquals(120, queue.getWrittenCount());
+        Assertions.assertTrue(largestBatch.get() <= 10, "Batches should not exceed the batch size.");
+    }
+
+    /**
+     * Tests that producers block while the queue is full and the writers are busy.
+     */
+    @Test
+    void testEnqueueBlocksWhenFull() throws Exception {
+        ProductDao productDao = Mockito.mock(ProductDao.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(productDao).saveAll(anyList());
+
+        WriteBehindQueue queue = new WriteBehindQueue(productDao, 1, 1, 1);
+        queue.enqueue(createItem(0));
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS), "The writer should pick up the first item.");
+        queue.enqueue(createItem(1)); // Fills the queue while the writer is busy
+
+        Thread producer = new Thread(() -> {
+            try {
+                queue.enqueue(createItem(2));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(300);
+        Assertions.assertTrue(producer.isAlive(), "The producer should wait for space in the queue.");
+
+        release.countDown();
+        producer.join(5000);
+        Assertions.assertFalse(producer.isAlive());
+        queue.close();
+        Assertions.assertEquals(3, queue.getWrittenCount());
+    }
+
+    /**
+     * Tests that an item that cannot be written is counted and does not stop the writers.
+     */
+    @Test
+    void testFailedBatchIsCounted() throws Exception {
+        ProductDao productDao = Mockito.mock(ProductDao.class);
+        ScrapedItem unwritable = createItem(0);
+        doThrow(new RuntimeException("Data too long for column")).when(productDao).saveAll(argThat(batch -> batch.contains(unwritable)));
+
+        WriteBehindQueue queue = new WriteBehindQueue(productDao, 10, 1, 1);
+        queue.enqueue(unwritable);
+        queue.enqueue(createItem(1));
+        queue.close();
+
+        Assertions.assertEquals(1, queue.getFailedCount());
+        Assertions.assertEquals(1, queue.getWrittenCount());
+    }
+
+    /**
+     * Tests that a batch that fails once is retried and written in full.
+     */
+    @Test
+    void testFailedBatchIsRetried() throws Exception {
+        ProductDao productDao = Mockito.mock(ProductDao.class);
+        doThrow(new RuntimeException("Lock wait timeout exceeded")).doNothing().when(productDao).saveAll(anyList());
+
+        WriteBehindQueue queue = new WriteBehindQueue(productDao, 10, 1, 10);
+        List<ScrapedItem> written = queue.enqueueAll(List.of(createItem(0), createItem(1))).get(5, TimeUnit.SECONDS);
+        queue.close();
+
+        Assertions.assertEquals(2, written.size());
+        Assertions.assertEquals(2, queue.getWrittenCount());
+        Assertions.assertEquals(0, queue.getFailedCount());
+    }
+
+    /**
+     * Tests that a batch that keeps failing is written item by item, so only the item that cannot be written
+     * is dropped, and that the future of the enqueued items holds only the written ones.
+     */
+    @Test
+    void testOnlyUnwritableItemIsDropped() throws Exception {
+        ProductDao productDao = Mockito.mock(ProductDao.class);
+        ScrapedItem unwritable = createItem(1);
+        doThrow(new RuntimeException("Incorrect string value")).when(productDao).saveAll(argThat(batch -> batch.contains(unwritable)));
+
+        WriteBehindQueue queue = new WriteBehindQueue(productDao, 10, 1, 10);
+        List<ScrapedItem> written = queue.enqueueAll(List.of(createItem(0), unwritable, createItem(2))).get(5, TimeUnit.SECONDS);
+        queue.close();
+
+        Assertions.assertEquals(2, written.size());
+        Assertions.assertFalse(written.contains(unwritable));
+        Assertions.assertEquals(2, queue.getWrittenCount());
+        Assertions.assertEquals(1, queue.getFailedCount());
+    }
+
+    /**
+     * Tests that items still queued when the writer is interrupted are settled as not written,
+     * and that the queue accepts no more items once no writer is left.
+     */
+    @Test
+    void testItemsLeftByInterruptedWriterAreFailed() throws Exception {
+        ProductDao productDao = Mockito.mock(ProductDao.class);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            Thread.currentThread().interrupt(); // As if the writer was interrupted while writing
+            return null;
+        }).when(productDao).saveAll(anyList());
+
+        WriteBehindQueue queue = new WriteBehindQueue(productDao, 10, 1, 10);
+        CompletableFuture<List<ScrapedItem>> first = queue.enqueueAll(List.of(createItem(0)));
+        Mockito.verify(productDao, Mockito.timeout(5000)).saveAll(anyList());
+        CompletableFuture<List<ScrapedItem>> rest = queue.enqueueAll(List.of(createItem(1), createItem(2)));
+        release.countDown();
+
+        Assertions.assertEquals(1, first.get(5, TimeUnit.SECONDS).size());
+        Assertions.assertEquals(List.of(), rest.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, queue.getFailedCount());
+        Assertions.assertThrows(IllegalStateException.class, () -> queue.enqueue(createItem(3)));
+    }
+
+    private static ScrapedItem createItem(int index) {
+        ScrapedItem item = new ScrapedItem();
+        item.setTitle("Queued Book " + index);
+        item.setAuthor("Queued Author");
+        item.setUrl("https://example.com/book/" + index);
+        return item;
+    }
+}